@@ -0,0 +1,9 @@
+package com.example.tripease.Enum;
+
+public enum BookingTransition {
+    ACCEPT, // Driver claims a pending booking
+    START, // Assigned driver starts the trip
+    COMPLETE, // Assigned driver completes the trip
+    CANCEL, // Customer or external system cancels
+    EXPIRE // Pending deadline passed without a driver
+}
@@ -6,5 +6,6 @@ public enum TripStatus {
     REJECTED, // Driver rejected the booking
     IN_PROGRESS, // Trip is ongoing
     COMPLETED, // Trip completed
-    CANCELLED // Customer cancelled
+    CANCELLED, // Customer cancelled
+    EXPIRED // No driver accepted before the pending deadline
 }
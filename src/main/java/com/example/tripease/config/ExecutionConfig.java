@@ -0,0 +1,71 @@
+package com.example.tripease.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for blocking outbound calls (partner webhooks), following the
+ * execution mode chosen with {@code spring.threads.virtual.enabled}: one
+ * virtual thread per call when enabled, otherwise a bounded platform pool
+ * so a slow partner cannot tie up request threads. Password hashing gets
+ * its own small platform pool in both modes, since it is CPU-bound.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    public static final String OUTBOUND_EXECUTOR = "outboundExecutor";
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
+    @Bean(OUTBOUND_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualOutboundExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbound-", 0).factory());
+    }
+
+    // When the pool and queue are full the caller makes the call itself, which slows producers instead of dropping work
+    @Bean(OUTBOUND_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService platformOutboundExecutor(
+            @Value("${outbound.executor.pool-size:16}") int poolSize,
+            @Value("${outbound.executor.queue-capacity:1000}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "outbound-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Caps the cores BCrypt can take from request handling; a full queue rejects instead of queueing without bound
+    @Bean(PASSWORD_HASHING_EXECUTOR)
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.tripease.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration for REST client used for external service communication
  */
 @Configuration
 public class RestTemplateConfig {
 
+    // Bounded timeouts so a hung partner endpoint cannot hold a thread indefinitely
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+            @Value("${integration.webhook.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${integration.webhook.read-timeout-ms:5000}") long readTimeoutMs) {
+        return builder
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
     }
 }
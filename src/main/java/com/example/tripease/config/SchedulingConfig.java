@@ -0,0 +1,13 @@
+package com.example.tripease.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (stream heartbeats, batch dispatch windows, stale driver eviction,
+ * token revocation refresh, booking expiry)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,120 @@
+package com.example.tripease.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier (inside a
+ * synchronized block or native frame, e.g. a JDBC driver or library lock),
+ * which silently turns the virtual-thread pool back into a small platform
+ * pool. JFR's {@code jdk.VirtualThreadPinned} events above
+ * {@code threads.virtual.pinned-threshold-ms} are streamed in-process and
+ * published as {@code jvm.threads.virtual.pinned{site}}, where site is the
+ * innermost application frame; each new site is logged once with its stack.
+ * Only active when {@code spring.threads.virtual.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final String APPLICATION_PACKAGE = "com.example.tripease.";
+
+    // Keeps the site tag bounded if pinning shows up all over a library
+    private static final int MAX_SITES = 50;
+    private static final String OTHER_SITE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Counter submitFailed;
+    private final ConcurrentHashMap<String, Timer> timersBySite = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${threads.virtual.pinned-threshold-ms:20}") long thresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be scheduled on a carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT);
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = siteOf(event.getStackTrace());
+        String tag = timersBySite.containsKey(site) || timersBySite.size() < MAX_SITES ? site : OTHER_SITE;
+        Timer timer = timersBySite.computeIfAbsent(tag, key -> {
+            log.warn("Virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), key,
+                    format(event.getStackTrace()));
+            return Timer.builder("jvm.threads.virtual.pinned")
+                    .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                    .tag("site", key)
+                    .register(meterRegistry);
+        });
+        timer.record(event.getDuration());
+    }
+
+    // Innermost application frame within the recorded stack depth, else the top frame
+    private static String siteOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        RecordedFrame top = frames.get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            text.append("\tat ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -7,6 +7,7 @@ import com.example.tripease.dto.response.AuthResponse;
 import com.example.tripease.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -42,6 +43,19 @@ public class AuthController {
         return ResponseEntity.ok(authService.loginValidator(request));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        authService.logout(authorization);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutEverywhere() {
+        authService.logoutEverywhere();
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register/validator")
     public ResponseEntity<AuthResponse> registerValidator(@Valid @RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.registerValidator(request));
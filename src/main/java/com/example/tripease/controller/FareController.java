@@ -1,27 +1,83 @@
 package com.example.tripease.controller;
 
+import com.example.tripease.dto.request.BatchFareRequest;
 import com.example.tripease.dto.request.FareCalculationRequest;
+import com.example.tripease.dto.response.BatchFareResult;
 import com.example.tripease.dto.response.FareCalculationResponse;
+import com.example.tripease.security.JwtPrincipal;
+import com.example.tripease.service.FareQuoteRateLimiter;
 import com.example.tripease.service.FareService;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/fare")
-@RequiredArgsConstructor
 public class FareController {
 
     private final FareService fareService;
+    private final FareQuoteRateLimiter fareQuoteRateLimiter;
+    private final long batchTimeoutMs;
 
-    @PostMapping("/calculate")
-    public ResponseEntity<FareCalculationResponse> calculateFare(@RequestBody FareCalculationRequest request) {
-        FareCalculationResponse response = fareService.calculateFare(request);
+    public FareController(FareService fareService, FareQuoteRateLimiter fareQuoteRateLimiter,
+            @Value("${fare.batch.timeout-ms:300000}") long batchTimeoutMs) {
+        this.fareService = fareService;
+        this.fareQuoteRateLimiter = fareQuoteRateLimiter;
+        this.batchTimeoutMs = batchTimeoutMs;
+    }
 
-        if (response.getFareEstimates() == null || response.getFareEstimates().isEmpty()) {
-            return ResponseEntity.badRequest().body(response);
-        }
+    // Async so the Tomcat thread is released while the route lookup is in flight
+    @PostMapping("/calculate")
+    public CompletableFuture<ResponseEntity<FareCalculationResponse>> calculateFare(
+            @RequestBody FareCalculationRequest request, HttpServletRequest servletRequest) {
+        // Each estimate mints a quote; signed-in users are limited per account, anonymous callers per address
+        fareQuoteRateLimiter.acquire(JwtPrincipal.current()
+                .map(user -> "user:" + user.userId())
+                .orElseGet(() -> "ip:" + servletRequest.getRemoteAddr()));
+        return fareService.calculateFareAsync(request).thenApply(response -> {
+            if (response.getFareEstimates() == null || response.getFareEstimates().isEmpty()) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        });
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Fare estimates for many pickup/destination pairs in one call. Each result
+     * is streamed as a "fare" event as soon as its route is known (in completion
+     * order, tagged with its request positions), then a final "done" event.
+     */
+    @PostMapping(value = "/calculate/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter calculateFareBatch(@RequestBody BatchFareRequest request) {
+        SseEmitter emitter = new SseEmitter(batchTimeoutMs);
+        fareService.calculateFareBatch(request.getPairs(), (indexes, fare) -> {
+            try {
+                emitter.send(SseEmitter.event().name("fare")
+                        .data(new BatchFareResult(indexes, fare), MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((ignored, e) -> {
+            if (e != null) {
+                emitter.completeWithError(e);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("done")
+                        .data(Map.of("pairs", request.getPairs().size()), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException ex) {
+                emitter.completeWithError(ex);
+            }
+        });
+        return emitter;
     }
 }
@@ -1,11 +1,20 @@
 package com.example.tripease.controller;
 
+import com.example.tripease.Enum.Role;
+import com.example.tripease.dispatch.PendingBookingStream;
 import com.example.tripease.dto.request.CreateBookingRequest;
+import com.example.tripease.dto.request.DriverLocationRequest;
 import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.security.JwtPrincipal;
 import com.example.tripease.service.RideBookingService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -15,6 +24,7 @@ import java.util.List;
 public class RideController {
 
     private final RideBookingService rideBookingService;
+    private final PendingBookingStream pendingBookingStream;
 
     /**
      * Customer creates a new booking
@@ -41,19 +51,66 @@ public class RideController {
     }
 
     /**
-     * Get all pending bookings (for drivers)
+     * Get pending bookings (for drivers). With lat/lng only bookings within
+     * radiusKm of the driver are returned.
      */
     @GetMapping("/pending")
-    public ResponseEntity<List<BookingDetailsResponse>> getPendingBookings() {
-        List<BookingDetailsResponse> bookings = rideBookingService.getPendingBookings();
+    public ResponseEntity<List<BookingDetailsResponse>> getPendingBookings(
+            @AuthenticationPrincipal JwtPrincipal user,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "5") double radiusKm) {
+        Integer driverId = user != null && user.hasRole(Role.DRIVER) ? user.referenceId() : null;
+        if (lat != null && lng != null) {
+            return ResponseEntity.ok(rideBookingService.getNearbyPendingBookings(lat, lng, radiusKm, driverId));
+        }
+        List<BookingDetailsResponse> bookings = rideBookingService.getPendingBookings(driverId);
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Push stream of pending-booking changes (booking-created, booking-accepted,
+     * booking-cancelled) for drivers, replacing periodic polling of /pending
+     */
+    @GetMapping(value = "/pending/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPendingBookings(@AuthenticationPrincipal JwtPrincipal user) {
+        Integer driverId = user != null && user.hasRole(Role.DRIVER) ? user.referenceId() : null;
+        return pendingBookingStream.subscribe(driverId);
+    }
+
+    /**
+     * Driver GPS ping, used to offer new bookings to the nearest drivers
+     */
+    @PostMapping("/driver/location")
+    public ResponseEntity<Void> updateDriverLocation(@AuthenticationPrincipal JwtPrincipal user,
+            @Valid @RequestBody DriverLocationRequest request) {
+        if (!isDriver(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        rideBookingService.updateDriverLocation(user.referenceId(), request);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Pending bookings offered to the current driver
+     */
+    @GetMapping("/offers")
+    public ResponseEntity<List<BookingDetailsResponse>> getDriverOffers(@AuthenticationPrincipal JwtPrincipal user) {
+        if (!isDriver(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(rideBookingService.getDriverOffers(user.referenceId()));
+    }
+
     /**
      * Driver accepts a booking
      */
     @PostMapping("/accept/{bookingId}")
-    public ResponseEntity<BookingDetailsResponse> acceptBooking(@PathVariable int bookingId) {
+    public ResponseEntity<BookingDetailsResponse> acceptBooking(@AuthenticationPrincipal JwtPrincipal user,
+            @PathVariable int bookingId) {
+        if (!isDriver(user)) {
+            return forbidden();
+        }
         try {
             BookingDetailsResponse response = rideBookingService.acceptBooking(bookingId);
             if (response.getBookingId() == 0) {
@@ -69,10 +126,14 @@ public class RideController {
     }
 
     /**
-     * Driver rejects a booking
+     * Driver rejects a booking (the booking is re-offered to other drivers)
      */
     @PostMapping("/reject/{bookingId}")
-    public ResponseEntity<BookingDetailsResponse> rejectBooking(@PathVariable int bookingId) {
+    public ResponseEntity<BookingDetailsResponse> rejectBooking(@AuthenticationPrincipal JwtPrincipal user,
+            @PathVariable int bookingId) {
+        if (!isDriver(user)) {
+            return forbidden();
+        }
         BookingDetailsResponse response = rideBookingService.rejectBooking(bookingId);
         return ResponseEntity.ok(response);
     }
@@ -108,7 +169,11 @@ public class RideController {
      * Driver starts the trip
      */
     @PostMapping("/start/{bookingId}")
-    public ResponseEntity<BookingDetailsResponse> startTrip(@PathVariable int bookingId) {
+    public ResponseEntity<BookingDetailsResponse> startTrip(@AuthenticationPrincipal JwtPrincipal user,
+            @PathVariable int bookingId) {
+        if (!isDriver(user)) {
+            return forbidden();
+        }
         BookingDetailsResponse response = rideBookingService.startTrip(bookingId);
         if (response.getBookingId() == 0) {
             return ResponseEntity.badRequest().body(response);
@@ -120,11 +185,27 @@ public class RideController {
      * Driver completes the trip
      */
     @PostMapping("/complete/{bookingId}")
-    public ResponseEntity<BookingDetailsResponse> completeTrip(@PathVariable int bookingId) {
+    public ResponseEntity<BookingDetailsResponse> completeTrip(@AuthenticationPrincipal JwtPrincipal user,
+            @PathVariable int bookingId) {
+        if (!isDriver(user)) {
+            return forbidden();
+        }
         BookingDetailsResponse response = rideBookingService.completeTrip(bookingId);
         if (response.getBookingId() == 0) {
             return ResponseEntity.badRequest().body(response);
         }
         return ResponseEntity.ok(response);
     }
+
+    // Driver-only endpoints act on the driver id carried in the token
+    private static boolean isDriver(JwtPrincipal user) {
+        return user != null && user.hasRole(Role.DRIVER) && user.referenceId() != null;
+    }
+
+    private static ResponseEntity<BookingDetailsResponse> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
+                BookingDetailsResponse.builder()
+                        .message("Only drivers can do this")
+                        .build());
+    }
 }
@@ -0,0 +1,98 @@
+package com.example.tripease.dispatch;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost assignment of rows (bookings) to columns (drivers) with the
+ * forward auction algorithm. The cost matrix is sparse in CSR
+ * form so only feasible pairs are stored; every row also has a private
+ * "stay unassigned" option at {@code unassignedCost}, which keeps the
+ * auction finite when there are fewer feasible drivers than bookings.
+ * Prices start at zero and only rise, so columns nobody bid on keep price
+ * zero and the result is within rows * epsilon of the optimum even when
+ * rows and columns differ in number. Everything runs on primitive arrays.
+ */
+public final class AssignmentSolver {
+
+    public static final int UNASSIGNED = -1;
+
+    private static final double EPSILON_RATIO = 1e-3;
+
+    private AssignmentSolver() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @param rows           number of rows
+     * @param cols           number of columns
+     * @param rowStart       CSR row offsets, length rows + 1
+     * @param colIndex       column of each feasible entry
+     * @param cost           cost of each feasible entry (non-negative)
+     * @param unassignedCost cost of leaving a row unassigned
+     * @return column assigned to each row, or {@link #UNASSIGNED}
+     */
+    public static int[] solve(int rows, int cols, int[] rowStart, int[] colIndex, double[] cost,
+            double unassignedCost) {
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, UNASSIGNED);
+        if (rows == 0 || cols == 0) {
+            return assignment;
+        }
+
+        double[] prices = new double[cols];
+        int[] owner = new int[cols];
+        int[] queue = new int[rows];
+
+        // Result is within rows * epsilon of the optimum
+        double epsilon = Math.max(unassignedCost * EPSILON_RATIO, Double.MIN_NORMAL);
+        auction(rows, rowStart, colIndex, cost, unassignedCost, epsilon, prices, owner, queue, assignment);
+        return assignment;
+    }
+
+    private static void auction(int rows, int[] rowStart, int[] colIndex, double[] cost,
+            double unassignedCost, double epsilon, double[] prices, int[] owner, int[] queue, int[] assignment) {
+        Arrays.fill(owner, UNASSIGNED);
+        for (int i = 0; i < rows; i++) {
+            queue[i] = i;
+        }
+        // Circular queue of rows that still need to bid; a row is never queued twice
+        int head = 0;
+        int size = rows;
+
+        while (size > 0) {
+            int row = queue[head];
+            head = head + 1 == rows ? 0 : head + 1;
+            size--;
+
+            // Values are benefits (-cost - price); the private unassigned option is always available
+            double best = -unassignedCost;
+            double second = Double.NEGATIVE_INFINITY;
+            int bestCol = UNASSIGNED;
+            for (int e = rowStart[row]; e < rowStart[row + 1]; e++) {
+                int col = colIndex[e];
+                double value = -cost[e] - prices[col];
+                if (value > best) {
+                    second = best;
+                    best = value;
+                    bestCol = col;
+                } else if (value > second) {
+                    second = value;
+                }
+            }
+            if (bestCol == UNASSIGNED) {
+                continue;
+            }
+
+            prices[bestCol] += best - second + epsilon;
+            int previous = owner[bestCol];
+            owner[bestCol] = row;
+            assignment[row] = bestCol;
+            if (previous != UNASSIGNED) {
+                assignment[previous] = UNASSIGNED;
+                int tail = head + size;
+                queue[tail >= rows ? tail - rows : tail] = previous;
+                size++;
+            }
+        }
+    }
+}
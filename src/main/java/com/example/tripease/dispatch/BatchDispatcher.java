@@ -0,0 +1,210 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * BATCH dispatch mode: every window, collect the pending bookings and the
+ * available drivers, solve the global min-pickup-distance assignment and
+ * propose each match to its driver. Greedy first-come acceptance gives long
+ * pickups at peak; a global assignment shortens them for everyone.
+ * A proposal is kept across windows until its driver declines, becomes
+ * unavailable or lets the offer time out; only the rest is re-solved, so a
+ * booking does not hop between drivers while its offer is on screen.
+ */
+@Slf4j
+@Component
+public class BatchDispatcher {
+
+    private final PendingBookingIndex pendingBookingIndex;
+    private final DriverLocationRegistry driverLocationRegistry;
+    private final DriverDispatcher driverDispatcher;
+    private final DeclinedDrivers declinedDrivers;
+    private final double maxRadiusKm;
+    private final int maxBatchSize;
+    private final long offerTimeoutMs;
+
+    // Booking id -> live proposal; only touched by the window thread
+    private final Map<Integer, Proposal> proposals = new HashMap<>();
+
+    public BatchDispatcher(PendingBookingIndex pendingBookingIndex,
+            DriverLocationRegistry driverLocationRegistry,
+            DriverDispatcher driverDispatcher,
+            DeclinedDrivers declinedDrivers,
+            @Value("${dispatch.batch.max-radius-km:5.0}") double maxRadiusKm,
+            @Value("${dispatch.batch.max-size:5000}") int maxBatchSize,
+            @Value("${dispatch.batch.offer-timeout-ms:15000}") long offerTimeoutMs) {
+        this.pendingBookingIndex = pendingBookingIndex;
+        this.driverLocationRegistry = driverLocationRegistry;
+        this.driverDispatcher = driverDispatcher;
+        this.declinedDrivers = declinedDrivers;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.batch.window-ms:2000}")
+    public void dispatchWindow() {
+        if (driverDispatcher.getMode() != DispatchMode.BATCH) {
+            return;
+        }
+        List<BookingDetailsResponse> pending = pendingBookingIndex.snapshot();
+        DriverLocationRegistry.AvailableDrivers available = driverLocationRegistry.availableSnapshot();
+        long now = System.currentTimeMillis();
+
+        Set<Integer> heldDrivers = keepLiveProposals(pending, available, now);
+        List<BookingDetailsResponse> bookings = new ArrayList<>(pending.size());
+        for (BookingDetailsResponse booking : pending) {
+            if (!proposals.containsKey(booking.getBookingId())) {
+                bookings.add(booking);
+            }
+        }
+        if (bookings.size() > maxBatchSize) {
+            bookings = bookings.subList(0, maxBatchSize);
+        }
+        DriverLocationRegistry.AvailableDrivers drivers = without(available, heldDrivers);
+        if (bookings.isEmpty() || drivers.count() == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int[] match = match(bookings, drivers);
+        int proposed = 0;
+        for (int row = 0; row < match.length; row++) {
+            if (match[row] != AssignmentSolver.UNASSIGNED) {
+                BookingDetailsResponse booking = bookings.get(row);
+                int driverId = drivers.ids()[match[row]];
+                driverDispatcher.offer(booking, new int[]{driverId});
+                proposals.put(booking.getBookingId(), new Proposal(driverId, now));
+                proposed++;
+            }
+        }
+        log.debug("Batch dispatch matched {} of {} bookings to {} drivers in {} ms ({} held)",
+                proposed, bookings.size(), drivers.count(), (System.nanoTime() - start) / 1_000_000,
+                proposals.size() - proposed);
+    }
+
+    /**
+     * Drop proposals whose booking left the pool, whose driver declined or went
+     * unavailable, or whose offer timed out; returns the drivers still holding one
+     */
+    private Set<Integer> keepLiveProposals(List<BookingDetailsResponse> pending,
+            DriverLocationRegistry.AvailableDrivers available, long now) {
+        Set<Integer> pendingIds = new HashSet<>(pending.size());
+        for (BookingDetailsResponse booking : pending) {
+            pendingIds.add(booking.getBookingId());
+        }
+        Set<Integer> availableIds = new HashSet<>(available.count());
+        for (int i = 0; i < available.count(); i++) {
+            availableIds.add(available.ids()[i]);
+        }
+
+        Set<Integer> heldDrivers = new HashSet<>();
+        proposals.entrySet().removeIf(entry -> {
+            int bookingId = entry.getKey();
+            Proposal proposal = entry.getValue();
+            if (!pendingIds.contains(bookingId) || !availableIds.contains(proposal.driverId())
+                    || declinedDrivers.hasDeclined(bookingId, proposal.driverId())) {
+                return true;
+            }
+            if (now - proposal.offeredAt() >= offerTimeoutMs) {
+                // Take the stale offer back so the booking can be solved afresh
+                driverDispatcher.reoffer(bookingId, proposal.driverId());
+                return true;
+            }
+            heldDrivers.add(proposal.driverId());
+            return false;
+        });
+        return heldDrivers;
+    }
+
+    private static DriverLocationRegistry.AvailableDrivers without(DriverLocationRegistry.AvailableDrivers drivers,
+            Set<Integer> excluded) {
+        if (excluded.isEmpty()) {
+            return drivers;
+        }
+        int[] ids = new int[drivers.count()];
+        double[] lats = new double[drivers.count()];
+        double[] lngs = new double[drivers.count()];
+        int count = 0;
+        for (int i = 0; i < drivers.count(); i++) {
+            if (!excluded.contains(drivers.ids()[i])) {
+                ids[count] = drivers.ids()[i];
+                lats[count] = drivers.lats()[i];
+                lngs[count] = drivers.lngs()[i];
+                count++;
+            }
+        }
+        return new DriverLocationRegistry.AvailableDrivers(count, ids, lats, lngs);
+    }
+
+    /**
+     * Column (index into drivers) chosen for each booking, or UNASSIGNED
+     */
+    int[] match(List<BookingDetailsResponse> bookings, DriverLocationRegistry.AvailableDrivers drivers) {
+        int rows = bookings.size();
+        int cols = drivers.count();
+
+        // Cost rows are built in parallel, one booking per task: distances to every driver in one
+        // bulk (SIMD) pass, then only pairs within range are kept, skipping drivers that already
+        // declined the booking
+        int[][] rowCols = new int[rows][];
+        double[][] rowCosts = new double[rows][];
+        ThreadLocal<int[]> colScratch = ThreadLocal.withInitial(() -> new int[cols]);
+        ThreadLocal<double[]> costScratch = ThreadLocal.withInitial(() -> new double[cols]);
+        ThreadLocal<double[]> distanceScratch = ThreadLocal.withInitial(() -> new double[cols]);
+        IntStream.range(0, rows).parallel().forEach(row -> {
+            BookingDetailsResponse booking = bookings.get(row);
+            int[] colBuffer = colScratch.get();
+            double[] costBuffer = costScratch.get();
+            double[] distances = distanceScratch.get();
+            BulkHaversine.distancesKm(booking.getPickupLat(), booking.getPickupLng(),
+                    drivers.lats(), drivers.lngs(), cols, distances);
+            int[] declined = declinedDrivers.declinedBy(booking.getBookingId());
+            int count = 0;
+            for (int col = 0; col < cols; col++) {
+                double distance = distances[col];
+                if (distance > maxRadiusKm) {
+                    continue;
+                }
+                if (declined.length > 0 && Arrays.binarySearch(declined, drivers.ids()[col]) >= 0) {
+                    continue;
+                }
+                colBuffer[count] = col;
+                costBuffer[count] = distance;
+                count++;
+            }
+            rowCols[row] = Arrays.copyOf(colBuffer, count);
+            rowCosts[row] = Arrays.copyOf(costBuffer, count);
+        });
+
+        int[] rowStart = new int[rows + 1];
+        for (int row = 0; row < rows; row++) {
+            rowStart[row + 1] = rowStart[row] + rowCols[row].length;
+        }
+        int[] colIndex = new int[rowStart[rows]];
+        double[] cost = new double[rowStart[rows]];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(rowCols[row], 0, colIndex, rowStart[row], rowCols[row].length);
+            System.arraycopy(rowCosts[row], 0, cost, rowStart[row], rowCosts[row].length);
+        }
+
+        // Leaving a booking unmatched costs more than any feasible pickup
+        return AssignmentSolver.solve(rows, cols, rowStart, colIndex, cost, maxRadiusKm + 1.0);
+    }
+
+    private record Proposal(int driverId, long offeredAt) {
+    }
+}
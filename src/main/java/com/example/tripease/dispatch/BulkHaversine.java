@@ -0,0 +1,56 @@
+package com.example.tripease.dispatch;
+
+/**
+ * Haversine distance from one point to many, over structure-of-arrays
+ * latitude/longitude buffers. Uses the JDK Vector API when the
+ * {@code jdk.incubator.vector} module is present (start the JVM with
+ * {@code --add-modules jdk.incubator.vector}), otherwise a scalar loop with
+ * the per-query trigonometry hoisted out. Both produce the same distances as
+ * {@link GeoMath#haversineKm} to within floating-point rounding.
+ */
+public final class BulkHaversine {
+
+    static final double DEG_TO_RAD = Math.PI / 180.0;
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorHaversine.isUseful();
+
+    private BulkHaversine() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Whether {@link #distancesKm} runs the SIMD kernel on this JVM
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * {@code out[i]} = distance in km from (lat, lng) to (lats[i], lngs[i]) for i in [0, count)
+     */
+    public static void distancesKm(double lat, double lng, double[] lats, double[] lngs, int count, double[] out) {
+        if (VECTORIZED) {
+            VectorHaversine.distancesKm(lat, lng, lats, lngs, count, out);
+        } else {
+            scalarDistancesKm(lat, lng, lats, lngs, 0, count, out);
+        }
+    }
+
+    /**
+     * Scalar kernel over [from, to); also finishes the tail the vector loop leaves
+     */
+    public static void scalarDistancesKm(double lat, double lng, double[] lats, double[] lngs, int from, int to,
+            double[] out) {
+        double lat0 = lat * DEG_TO_RAD;
+        double lng0 = lng * DEG_TO_RAD;
+        double cosLat0 = Math.cos(lat0);
+        for (int i = from; i < to; i++) {
+            double lat1 = lats[i] * DEG_TO_RAD;
+            double sinLat = Math.sin((lat1 - lat0) * 0.5);
+            double sinLng = Math.sin((lngs[i] * DEG_TO_RAD - lng0) * 0.5);
+            double a = sinLat * sinLat + cosLat0 * Math.cos(lat1) * sinLng * sinLng;
+            out[i] = 2 * GeoMath.EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        }
+    }
+}
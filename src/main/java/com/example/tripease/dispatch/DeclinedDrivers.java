@@ -0,0 +1,82 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drivers that declined each pending booking, kept only in memory. A
+ * driver's rejection no longer ends the booking: it stays pending for
+ * everyone else and is just never offered or listed to that driver again.
+ * Each set is a small sorted int[] replaced on write, so lookups are a
+ * binary search without boxing. Entries go away once the booking leaves
+ * the pending pool.
+ */
+@Component
+public class DeclinedDrivers {
+
+    private static final int[] NONE = new int[0];
+
+    private final ConcurrentHashMap<Integer, int[]> declinedBy = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onPendingBookingEvent(PendingBookingEvent event) {
+        if (event.type() != PendingBookingEvent.Type.CREATED) {
+            declinedBy.remove(event.bookingId());
+        }
+    }
+
+    /**
+     * Record that a driver declined a booking; returns false if they already had
+     */
+    public boolean decline(int bookingId, int driverId) {
+        boolean[] added = new boolean[1];
+        declinedBy.compute(bookingId, (id, drivers) -> {
+            int[] current = drivers != null ? drivers : NONE;
+            int position = Arrays.binarySearch(current, driverId);
+            if (position >= 0) {
+                return current;
+            }
+            int insertAt = -position - 1;
+            int[] updated = new int[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = driverId;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            added[0] = true;
+            return updated;
+        });
+        return added[0];
+    }
+
+    public boolean hasDeclined(int bookingId, int driverId) {
+        int[] drivers = declinedBy.get(bookingId);
+        return drivers != null && Arrays.binarySearch(drivers, driverId) >= 0;
+    }
+
+    /**
+     * Sorted ids of drivers that declined the booking (shared, do not modify)
+     */
+    public int[] declinedBy(int bookingId) {
+        return declinedBy.getOrDefault(bookingId, NONE);
+    }
+
+    /**
+     * The bookings the driver has not declined (the list is filtered in place);
+     * a null driver sees everything
+     */
+    public List<BookingDetailsResponse> visibleTo(Integer driverId, List<BookingDetailsResponse> bookings) {
+        if (driverId == null) {
+            return bookings;
+        }
+        bookings.removeIf(booking -> hasDeclined(booking.getBookingId(), driverId));
+        return bookings;
+    }
+
+    public void clear(int bookingId) {
+        declinedBy.remove(bookingId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.tripease.dispatch;
+
+/**
+ * How pending bookings reach drivers (property dispatch.mode)
+ */
+public enum DispatchMode {
+    FREE_FOR_ALL, // Every driver sees the pending list, first to accept wins
+    NEAREST, // Each new booking is also offered to the nearest available drivers right away
+    BATCH // Bookings and drivers are matched globally in short windows by AssignmentSolver
+}
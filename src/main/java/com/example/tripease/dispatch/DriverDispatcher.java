@@ -0,0 +1,163 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.model.Booking;
+import com.example.tripease.transformer.BookingTransformer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes pending bookings to drivers according to {@link DispatchMode}. In
+ * NEAREST mode every new booking is offered to the nearest available drivers
+ * first; in BATCH mode {@link BatchDispatcher} proposes matches. Offers are
+ * pushed on the offered drivers' streams and can be listed with
+ * {@link #offersFor(int)}; the booking stays in the general pending pool.
+ */
+@Slf4j
+@Component
+public class DriverDispatcher {
+
+    private final DriverLocationRegistry driverLocationRegistry;
+    private final PendingBookingIndex pendingBookingIndex;
+    private final PendingBookingStream pendingBookingStream;
+    private final DeclinedDrivers declinedDrivers;
+    private final DispatchMode mode;
+    private final int candidates;
+    private final double maxRadiusKm;
+
+    // bookingId -> drivers it was offered to, driverId -> bookings offered to them
+    private final ConcurrentHashMap<Integer, int[]> offeredTo = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<Integer>> offersByDriver = new ConcurrentHashMap<>();
+
+    public DriverDispatcher(DriverLocationRegistry driverLocationRegistry,
+            PendingBookingIndex pendingBookingIndex,
+            PendingBookingStream pendingBookingStream,
+            DeclinedDrivers declinedDrivers,
+            @Value("${dispatch.mode:NEAREST}") DispatchMode mode,
+            @Value("${dispatch.offer.candidates:5}") int candidates,
+            @Value("${dispatch.offer.max-radius-km:5.0}") double maxRadiusKm) {
+        this.driverLocationRegistry = driverLocationRegistry;
+        this.pendingBookingIndex = pendingBookingIndex;
+        this.pendingBookingStream = pendingBookingStream;
+        this.declinedDrivers = declinedDrivers;
+        this.mode = mode;
+        this.candidates = candidates;
+        this.maxRadiusKm = maxRadiusKm;
+    }
+
+    @EventListener
+    public void onPendingBookingEvent(PendingBookingEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                if (mode == DispatchMode.NEAREST) {
+                    offerToNearest(event.booking());
+                }
+            }
+            case ACCEPTED -> withdrawOffers(event.bookingId());
+            case CANCELLED -> withdrawOffers(event.bookingId());
+        }
+    }
+
+    /**
+     * Find the closest eligible drivers for a booking and push the offer to them
+     */
+    public int[] offerToNearest(Booking booking) {
+        return offerToNearest(BookingTransformer.bookingToBookingDetailsResponse(booking, null));
+    }
+
+    /**
+     * A driver declined a booking: drop their offer and, in NEAREST mode, hand the
+     * booking to the next-best drivers that have not declined it. In BATCH mode the
+     * next window re-matches it without them.
+     */
+    public void reoffer(int bookingId, int declinedDriverId) {
+        removeOffer(bookingId, declinedDriverId);
+        if (mode != DispatchMode.NEAREST) {
+            return;
+        }
+        pendingBookingIndex.get(bookingId).ifPresent(this::offerToNearest);
+    }
+
+    public DispatchMode getMode() {
+        return mode;
+    }
+
+    private int[] offerToNearest(BookingDetailsResponse booking) {
+        int bookingId = booking.getBookingId();
+        int[] drivers = driverLocationRegistry.nearestAvailable(booking.getPickupLat(), booking.getPickupLng(),
+                candidates, maxRadiusKm, driverId -> !declinedDrivers.hasDeclined(bookingId, driverId));
+        offer(booking, drivers);
+        return drivers;
+    }
+
+    /**
+     * Record and push an offer of a pending booking to specific drivers,
+     * replacing any earlier offer of the same booking
+     */
+    public void offer(BookingDetailsResponse booking, int[] drivers) {
+        if (drivers.length == 0) {
+            return;
+        }
+        int bookingId = booking.getBookingId();
+        int[] previous = offeredTo.get(bookingId);
+        withdrawOffers(bookingId);
+        offeredTo.put(bookingId, drivers);
+        for (int driverId : drivers) {
+            offersByDriver.computeIfAbsent(driverId, id -> ConcurrentHashMap.newKeySet()).add(bookingId);
+        }
+        // Drivers that already hold this offer are not pushed it again
+        int[] fresh = previous == null ? drivers
+                : Arrays.stream(drivers).filter(id -> Arrays.stream(previous).noneMatch(p -> p == id)).toArray();
+        if (fresh.length > 0) {
+            pendingBookingStream.sendToDrivers(fresh, "booking-offered", booking);
+        }
+        log.debug("Booking {} offered to drivers {}", bookingId, Arrays.toString(drivers));
+    }
+
+    /**
+     * Pending bookings currently offered to a driver
+     */
+    public List<BookingDetailsResponse> offersFor(int driverId) {
+        Set<Integer> bookingIds = offersByDriver.get(driverId);
+        if (bookingIds == null) {
+            return List.of();
+        }
+        List<BookingDetailsResponse> offers = new ArrayList<>(bookingIds.size());
+        for (Integer bookingId : bookingIds) {
+            pendingBookingIndex.get(bookingId).ifPresentOrElse(offers::add, () -> bookingIds.remove(bookingId));
+        }
+        return offers;
+    }
+
+    private void removeOffer(int bookingId, int driverId) {
+        offeredTo.computeIfPresent(bookingId, (id, drivers) -> {
+            int[] remaining = Arrays.stream(drivers).filter(d -> d != driverId).toArray();
+            return remaining.length == 0 ? null : remaining;
+        });
+        offersByDriver.computeIfPresent(driverId, (id, bookings) -> {
+            bookings.remove(bookingId);
+            return bookings.isEmpty() ? null : bookings;
+        });
+    }
+
+    private void withdrawOffers(int bookingId) {
+        int[] drivers = offeredTo.remove(bookingId);
+        if (drivers == null) {
+            return;
+        }
+        for (int driverId : drivers) {
+            offersByDriver.computeIfPresent(driverId, (id, bookings) -> {
+                bookings.remove(bookingId);
+                return bookings.isEmpty() ? null : bookings;
+            });
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.tripease.dispatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Latest GPS ping of every online driver, held only in memory. Drivers that
+ * are available and have pinged recently are also kept in a {@link GeoGrid}
+ * so the k nearest of them can be found by searching outward ring by ring.
+ * Busy state (driver on a trip) is owned here and survives location pings:
+ * a ping moves a busy driver's location but never makes them available.
+ */
+@Component
+public class DriverLocationRegistry {
+
+    private final GeoGrid availableGrid;
+    private final long staleAfterMs;
+    private final ConcurrentHashMap<Integer, DriverLocation> locations = new ConcurrentHashMap<>();
+    private final Set<Integer> busy = ConcurrentHashMap.newKeySet();
+
+    public DriverLocationRegistry(@Value("${dispatch.grid.cell-size-km:1.0}") double cellSizeKm,
+            @Value("${dispatch.driver.stale-after-ms:60000}") long staleAfterMs) {
+        this.availableGrid = new GeoGrid(cellSizeKm);
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    /**
+     * Record a location ping from a driver. {@code available} is the driver's
+     * own online/offline switch; a driver marked busy stays out of the grid.
+     */
+    public void update(int driverId, double lat, double lng, boolean available) {
+        // compute() serializes this driver's grid changes with markBusy/markAvailable
+        locations.compute(driverId, (id, current) -> {
+            DriverLocation location = new DriverLocation(driverId, lat, lng, System.currentTimeMillis(), available);
+            syncGrid(location);
+            return location;
+        });
+    }
+
+    /**
+     * Driver took a trip: keep the location but stop offering bookings until
+     * {@link #markAvailable}
+     */
+    public void markBusy(int driverId) {
+        locations.compute(driverId, (id, location) -> {
+            busy.add(driverId);
+            availableGrid.remove(driverId);
+            return location;
+        });
+    }
+
+    /**
+     * Driver finished or lost a trip and can receive offers again (if online)
+     */
+    public void markAvailable(int driverId) {
+        locations.compute(driverId, (id, location) -> {
+            busy.remove(driverId);
+            if (location != null) {
+                syncGrid(location);
+            }
+            return location;
+        });
+    }
+
+    public boolean isBusy(int driverId) {
+        return busy.contains(driverId);
+    }
+
+    public void remove(int driverId) {
+        locations.remove(driverId);
+        availableGrid.remove(driverId);
+    }
+
+    public DriverLocation get(int driverId) {
+        return locations.get(driverId);
+    }
+
+    public int availableCount() {
+        return availableGrid.size();
+    }
+
+    /**
+     * Ids of up to k available drivers nearest to the point, closest first
+     */
+    public int[] nearestAvailable(double lat, double lng, int k, double maxRadiusKm) {
+        return nearestAvailable(lat, lng, k, maxRadiusKm, id -> true);
+    }
+
+    /**
+     * Ids of up to k available drivers nearest to the point that pass the filter, closest first
+     */
+    public int[] nearestAvailable(double lat, double lng, int k, double maxRadiusKm, IntPredicate eligible) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        TopK best = new TopK(k);
+        long freshAfter = System.currentTimeMillis() - staleAfterMs;
+
+        for (int ring = 0; ; ring++) {
+            availableGrid.forEachInRing(lat, lng, ring, id -> {
+                DriverLocation location = locations.get(id);
+                if (location == null || !isAvailable(location) || location.timestamp() < freshAfter
+                        || !eligible.test(id)) {
+                    return;
+                }
+                double distance = GeoMath.haversineKm(lat, lng, location.lat(), location.lng());
+                if (distance <= maxRadiusKm) {
+                    best.offer(id, distance);
+                }
+            });
+            double covered = availableGrid.coveredRadiusKm(lat, ring);
+            if (covered >= maxRadiusKm || (best.isFull() && best.worstDistance() <= covered)) {
+                return best.ids();
+            }
+        }
+    }
+
+    /**
+     * Structure-of-arrays copy of all fresh, available drivers (for batch matching)
+     */
+    public AvailableDrivers availableSnapshot() {
+        long freshAfter = System.currentTimeMillis() - staleAfterMs;
+        int capacity = locations.size();
+        int[] ids = new int[capacity];
+        double[] lats = new double[capacity];
+        double[] lngs = new double[capacity];
+        int count = 0;
+        for (DriverLocation location : locations.values()) {
+            if (count == capacity) {
+                break;
+            }
+            if (isAvailable(location) && location.timestamp() >= freshAfter) {
+                ids[count] = location.driverId();
+                lats[count] = location.lat();
+                lngs[count] = location.lng();
+                count++;
+            }
+        }
+        return new AvailableDrivers(count, ids, lats, lngs);
+    }
+
+    /**
+     * Drop drivers whose last ping is too old to trust
+     */
+    @Scheduled(fixedRateString = "${dispatch.driver.stale-after-ms:60000}")
+    public void evictStale() {
+        long freshAfter = System.currentTimeMillis() - staleAfterMs;
+        locations.values().removeIf(location -> {
+            if (location.timestamp() < freshAfter) {
+                availableGrid.remove(location.driverId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private boolean isAvailable(DriverLocation location) {
+        return location.available() && !busy.contains(location.driverId());
+    }
+
+    private void syncGrid(DriverLocation location) {
+        if (isAvailable(location)) {
+            availableGrid.put(location.driverId(), location.lat(), location.lng());
+        } else {
+            availableGrid.remove(location.driverId());
+        }
+    }
+
+    /**
+     * Last ping; {@code available} is the driver's own switch, see {@link #isBusy} for trips
+     */
+    public record DriverLocation(int driverId, double lat, double lng, long timestamp, boolean available) {
+    }
+
+    public record AvailableDrivers(int count, int[] ids, double[] lats, double[] lngs) {
+    }
+
+    /**
+     * Fixed-size sorted buffer of the k closest candidates (k is small, so insertion sort wins)
+     */
+    private static final class TopK {
+        private final int[] ids;
+        private final double[] distances;
+        private int size;
+
+        TopK(int k) {
+            this.ids = new int[k];
+            this.distances = new double[k];
+        }
+
+        void offer(int id, double distance) {
+            if (size == ids.length && distance >= distances[size - 1]) {
+                return;
+            }
+            int i = size < ids.length ? size++ : size - 1;
+            while (i > 0 && distances[i - 1] > distance) {
+                ids[i] = ids[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            distances[i] = distance;
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double worstDistance() {
+            return distances[size - 1];
+        }
+
+        int[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.tripease.dispatch;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Concurrent uniform lat/lng grid over integer ids (booking ids, driver ids).
+ * Cells are square in degrees; a neighbourhood query only visits the cells
+ * covering the search radius, so its cost follows local density instead of
+ * the total number of indexed points.
+ */
+public class GeoGrid {
+
+    private final double cellDeg;
+    private final int lngCells;
+
+    private final ConcurrentHashMap<Long, Set<Integer>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> cellOf = new ConcurrentHashMap<>();
+
+    public GeoGrid(double cellSizeKm) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellDeg = cellSizeKm / GeoMath.KM_PER_DEGREE_LAT;
+        this.lngCells = (int) Math.ceil(360.0 / cellDeg);
+    }
+
+    /**
+     * Insert or move an id to the cell containing the given point
+     */
+    public void put(int id, double lat, double lng) {
+        long target = cellKey(latIndex(lat), lngIndex(lng));
+        cellOf.compute(id, (key, current) -> {
+            if (current != null && current == target) {
+                return current;
+            }
+            if (current != null) {
+                removeFromCell(current, id);
+            }
+            cells.compute(target, (cell, members) -> {
+                Set<Integer> set = members != null ? members : ConcurrentHashMap.newKeySet();
+                set.add(id);
+                return set;
+            });
+            return target;
+        });
+    }
+
+    public void remove(int id) {
+        cellOf.computeIfPresent(id, (key, current) -> {
+            removeFromCell(current, id);
+            return null;
+        });
+    }
+
+    public boolean contains(int id) {
+        return cellOf.containsKey(id);
+    }
+
+    public int size() {
+        return cellOf.size();
+    }
+
+    /**
+     * Visit every id in the cells intersecting the bounding box of the radius.
+     * Callers apply the exact distance filter themselves.
+     */
+    public void forEachNear(double lat, double lng, double radiusKm, IntConsumer action) {
+        int latSpan = (int) Math.ceil(radiusKm / GeoMath.KM_PER_DEGREE_LAT / cellDeg);
+        int lngSpan = lngSpan(lat, radiusKm);
+        int centerLat = latIndex(lat);
+        int centerLng = lngIndex(lng);
+        for (int dLat = -latSpan; dLat <= latSpan; dLat++) {
+            for (int dLng = -lngSpan; dLng <= lngSpan; dLng++) {
+                visitCell(centerLat + dLat, centerLng + dLng, action);
+            }
+        }
+    }
+
+    /**
+     * Visit the ids in the square ring of cells at exactly {@code ring} cells
+     * from the cell containing the point (ring 0 is that cell itself)
+     */
+    public void forEachInRing(double lat, double lng, int ring, IntConsumer action) {
+        int centerLat = latIndex(lat);
+        int centerLng = lngIndex(lng);
+        if (ring == 0) {
+            visitCell(centerLat, centerLng, action);
+            return;
+        }
+        for (int d = -ring; d <= ring; d++) {
+            visitCell(centerLat - ring, centerLng + d, action);
+            visitCell(centerLat + ring, centerLng + d, action);
+        }
+        for (int d = -ring + 1; d <= ring - 1; d++) {
+            visitCell(centerLat + d, centerLng - ring, action);
+            visitCell(centerLat + d, centerLng + ring, action);
+        }
+    }
+
+    /**
+     * Radius around the point that is guaranteed to be fully covered once
+     * rings 0..ring have been visited
+     */
+    public double coveredRadiusKm(double lat, int ring) {
+        double heightKm = cellDeg * GeoMath.KM_PER_DEGREE_LAT;
+        double farLat = Math.min(Math.abs(lat) + (ring + 1) * cellDeg, 89.0);
+        double widthKm = heightKm * Math.cos(Math.toRadians(farLat));
+        return ring * Math.min(heightKm, widthKm);
+    }
+
+    private void visitCell(int latIdx, int lngIdx, IntConsumer action) {
+        Set<Integer> members = cells.get(cellKey(latIdx, Math.floorMod(lngIdx, lngCells)));
+        if (members != null) {
+            for (Integer id : members) {
+                action.accept(id);
+            }
+        }
+    }
+
+    private int lngSpan(double lat, double radiusKm) {
+        double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(Math.abs(lat), 89.0))), 0.01);
+        int span = (int) Math.ceil(radiusKm / (GeoMath.KM_PER_DEGREE_LAT * cosLat) / cellDeg);
+        return Math.min(span, lngCells / 2);
+    }
+
+    private void removeFromCell(long cell, int id) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(id);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private int latIndex(double lat) {
+        return (int) Math.floor((lat + 90.0) / cellDeg);
+    }
+
+    private int lngIndex(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180.0) / cellDeg), lngCells);
+    }
+
+    private static long cellKey(int latIdx, int lngIdx) {
+        return ((long) latIdx << 32) | (lngIdx & 0xffffffffL);
+    }
+}
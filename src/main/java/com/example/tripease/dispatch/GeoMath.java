@@ -0,0 +1,28 @@
+package com.example.tripease.dispatch;
+
+/**
+ * Great-circle helpers shared by the dispatch indexes and fare fallback.
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    public static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private GeoMath() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Haversine distance between two points in kilometers
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lngDistance = Math.toRadians(lng2 - lng1);
+        double sinLat = Math.sin(latDistance / 2);
+        double sinLng = Math.sin(lngDistance / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.model.Booking;
+
+/**
+ * Published by the booking services whenever a booking enters or leaves the
+ * pending pool. The pending index and the driver stream both listen for it.
+ */
+public record PendingBookingEvent(Type type, int bookingId, Booking booking) {
+
+    public enum Type {
+        CREATED("booking-created"),
+        ACCEPTED("booking-accepted"),
+        CANCELLED("booking-cancelled");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    public static PendingBookingEvent created(Booking booking) {
+        return new PendingBookingEvent(Type.CREATED, booking.getBookingId(), booking);
+    }
+
+    public static PendingBookingEvent accepted(Booking booking) {
+        return new PendingBookingEvent(Type.ACCEPTED, booking.getBookingId(), booking);
+    }
+
+    public static PendingBookingEvent cancelled(Booking booking) {
+        return new PendingBookingEvent(Type.CANCELLED, booking.getBookingId(), booking);
+    }
+}
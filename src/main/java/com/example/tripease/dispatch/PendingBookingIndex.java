@@ -0,0 +1,146 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import com.example.tripease.transformer.BookingTransformer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory view of bookings that are PENDING and have no driver assigned.
+ * The database stays the source of truth: the index is rebuilt from it at
+ * startup and kept current from {@link PendingBookingEvent}s on every state change, so
+ * driver polls are served without touching the Booking table. Pickup points
+ * are also kept in a {@link GeoGrid} so drivers can ask for nearby bookings only.
+ */
+@Slf4j
+@Component
+public class PendingBookingIndex {
+
+    private final BookingRepository bookingRepository;
+    private final GeoGrid pickupGrid;
+
+    // Ordered newest first, same as findByTripStatusAndDriverIdIsNullOrderByBookedAtDesc
+    private final ConcurrentSkipListMap<Key, BookingDetailsResponse> byBookedAt = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Integer, Key> keys = new ConcurrentHashMap<>();
+
+    public PendingBookingIndex(BookingRepository bookingRepository,
+            @Value("${dispatch.grid.cell-size-km:1.0}") double cellSizeKm) {
+        this.bookingRepository = bookingRepository;
+        this.pickupGrid = new GeoGrid(cellSizeKm);
+    }
+
+    /**
+     * Load all pending bookings from the database (runs before the web server accepts requests)
+     */
+    @PostConstruct
+    public void rebuild() {
+        List<Booking> pending = bookingRepository
+                .findByTripStatusAndDriverIdIsNullOrderByBookedAtDesc(TripStatus.PENDING);
+        keys.keySet().forEach(this::remove);
+        pending.forEach(this::add);
+        log.info("Pending booking index rebuilt with {} bookings", pending.size());
+    }
+
+    @EventListener
+    public void onPendingBookingEvent(PendingBookingEvent event) {
+        if (event.type() == PendingBookingEvent.Type.CREATED) {
+            add(event.booking());
+        } else {
+            remove(event.bookingId());
+        }
+    }
+
+    /**
+     * Add or refresh a pending booking
+     */
+    public void add(Booking booking) {
+        long bookedAt = booking.getBookedAt() != null ? booking.getBookedAt().getTime() : System.currentTimeMillis();
+        Key key = new Key(bookedAt, booking.getBookingId());
+        BookingDetailsResponse snapshot = BookingTransformer.bookingToBookingDetailsResponse(booking, null);
+
+        keys.compute(booking.getBookingId(), (id, previous) -> {
+            if (previous != null) {
+                byBookedAt.remove(previous);
+            }
+            byBookedAt.put(key, snapshot);
+            pickupGrid.put(id, booking.getPickupLat(), booking.getPickupLng());
+            return key;
+        });
+    }
+
+    /**
+     * Remove a booking once it is accepted, rejected, cancelled or otherwise no longer pending
+     */
+    public void remove(int bookingId) {
+        keys.computeIfPresent(bookingId, (id, key) -> {
+            byBookedAt.remove(key);
+            pickupGrid.remove(id);
+            return null;
+        });
+    }
+
+    public boolean contains(int bookingId) {
+        return keys.containsKey(bookingId);
+    }
+
+    public Optional<BookingDetailsResponse> get(int bookingId) {
+        Key key = keys.get(bookingId);
+        return key == null ? Optional.empty() : Optional.ofNullable(byBookedAt.get(key));
+    }
+
+    /**
+     * Pending bookings, newest first
+     */
+    public List<BookingDetailsResponse> snapshot() {
+        return new ArrayList<>(byBookedAt.values());
+    }
+
+    /**
+     * Pending bookings whose pickup is within radiusKm of the given point, newest first
+     */
+    public List<BookingDetailsResponse> nearby(double lat, double lng, double radiusKm) {
+        List<Key> matches = new ArrayList<>();
+        pickupGrid.forEachNear(lat, lng, radiusKm, id -> {
+            Key key = keys.get(id);
+            BookingDetailsResponse booking = key != null ? byBookedAt.get(key) : null;
+            if (booking != null
+                    && GeoMath.haversineKm(lat, lng, booking.getPickupLat(), booking.getPickupLng()) <= radiusKm) {
+                matches.add(key);
+            }
+        });
+        matches.sort(null);
+
+        List<BookingDetailsResponse> result = new ArrayList<>(matches.size());
+        for (Key key : matches) {
+            BookingDetailsResponse booking = byBookedAt.get(key);
+            if (booking != null) {
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private record Key(long bookedAt, int bookingId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(other.bookedAt, bookedAt);
+            return byTime != 0 ? byTime : Integer.compare(other.bookingId, bookingId);
+        }
+    }
+}
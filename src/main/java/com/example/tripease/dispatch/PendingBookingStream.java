@@ -0,0 +1,237 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.transformer.BookingTransformer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events push channel of pending-booking deltas for drivers.
+ * Each subscriber is an async servlet response, not a thread. Every event is
+ * serialized once and queued on each subscriber's bounded outbox; an outbox
+ * is drained on a virtual thread only while it has events, so a stalled
+ * client holds up nobody but itself and is dropped once its outbox fills.
+ * Drivers never receive bookings they have declined.
+ */
+@Slf4j
+@Component
+public class PendingBookingStream {
+
+    static final String MY_BOOKING_UPDATED = "my-booking-updated";
+
+    private final ObjectMapper objectMapper;
+    private final PendingBookingIndex pendingBookingIndex;
+    private final DeclinedDrivers declinedDrivers;
+    private final long timeoutMs;
+    private final int outboxSize;
+
+    private final ConcurrentHashMap<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<Subscriber>> subscribersByDriver = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("pending-booking-stream-", 0).factory());
+
+    public PendingBookingStream(ObjectMapper objectMapper,
+            PendingBookingIndex pendingBookingIndex,
+            DeclinedDrivers declinedDrivers,
+            @Value("${dispatch.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${dispatch.stream.outbox-size:64}") int outboxSize) {
+        this.objectMapper = objectMapper;
+        this.pendingBookingIndex = pendingBookingIndex;
+        this.declinedDrivers = declinedDrivers;
+        this.timeoutMs = timeoutMs;
+        this.outboxSize = outboxSize;
+    }
+
+    /**
+     * Open a stream. The first event is the current pending list so the client
+     * does not need a separate initial poll. Streams opened by a driver also
+     * receive offers targeted at that driver and status changes of the
+     * bookings assigned to them.
+     */
+    public SseEmitter subscribe(Integer driverId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> unregister(emitter));
+        emitter.onTimeout(() -> unregister(emitter));
+        emitter.onError(e -> unregister(emitter));
+        register(emitter, driverId);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, Integer driverId) {
+        Subscriber subscriber = new Subscriber(emitter, driverId);
+        subscribers.put(emitter, subscriber);
+        if (driverId != null) {
+            subscribersByDriver.computeIfAbsent(driverId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        String snapshot = toJson(declinedDrivers.visibleTo(driverId, pendingBookingIndex.snapshot()));
+        subscriber.offer(event("pending-snapshot", snapshot));
+    }
+
+    @EventListener
+    public void onPendingBookingEvent(PendingBookingEvent event) {
+        Object payload = event.type() == PendingBookingEvent.Type.CREATED && event.booking() != null
+                ? BookingTransformer.bookingToBookingDetailsResponse(event.booking(), null)
+                : new Withdrawn(event.bookingId());
+        broadcast(event.bookingId(), event(event.type().eventName(), toJson(payload)));
+
+        // The assigned driver also learns that their own booking changed (e.g. cancelled by the customer)
+        if (event.type() != PendingBookingEvent.Type.CREATED && event.booking() != null
+                && event.booking().getDriverId() != null) {
+            sendToDrivers(new int[]{event.booking().getDriverId()}, MY_BOOKING_UPDATED,
+                    BookingTransformer.bookingToBookingDetailsResponse(event.booking(), null));
+        }
+    }
+
+    /**
+     * Push an event only to the streams of the given drivers
+     */
+    public void sendToDrivers(int[] driverIds, String eventName, Object payload) {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = event(eventName, toJson(payload));
+        for (int driverId : driverIds) {
+            Set<Subscriber> driverSubscribers = subscribersByDriver.get(driverId);
+            if (driverSubscribers != null) {
+                driverSubscribers.forEach(subscriber -> subscriber.offer(event));
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects dead clients
+     */
+    @Scheduled(fixedRateString = "${dispatch.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> keepAlive = SseEmitter.event().comment("keep-alive").build();
+        subscribers.values().forEach(subscriber -> subscriber.offer(keepAlive));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void unregister(SseEmitter emitter) {
+        Subscriber subscriber = subscribers.remove(emitter);
+        if (subscriber != null && subscriber.driverId != null) {
+            subscribersByDriver.computeIfPresent(subscriber.driverId, (id, driverSubscribers) -> {
+                driverSubscribers.remove(subscriber);
+                return driverSubscribers.isEmpty() ? null : driverSubscribers;
+            });
+        }
+    }
+
+    private void broadcast(int bookingId, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            Integer driverId = subscriber.driverId;
+            if (driverId == null || !declinedDrivers.hasDeclined(bookingId, driverId)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> event(String eventName, String json) {
+        return SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize booking event", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.keySet().forEach(SseEmitter::complete);
+        senders.shutdownNow();
+    }
+
+    /**
+     * One open stream and its pending writes. At most one drain runs at a time,
+     * so events reach the client in order.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Integer driverId;
+        private final ConcurrentLinkedQueue<Set<ResponseBodyEmitter.DataWithMediaType>> outbox =
+                new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Integer driverId) {
+            this.emitter = emitter;
+            this.driverId = driverId;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > outboxSize) {
+                log.debug("Dropping SSE subscriber {} with a full outbox", driverId);
+                close(null);
+                return;
+            }
+            outbox.add(event);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = outbox.poll()) != null) {
+                    queued.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        close(e);
+                    }
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the flag was cleared is ours to send
+                if (closed.get() || outbox.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        // Completing takes the emitter's lock, which a stalled send holds, so it never runs on the caller
+        private void close(Exception error) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            outbox.clear();
+            unregister(emitter);
+            senders.execute(() -> {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                } else {
+                    emitter.complete();
+                }
+            });
+        }
+    }
+
+    private record Withdrawn(int bookingId) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.tripease.dispatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timing wheel of integer ids with deadlines in epoch millis.
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs}; each higher level
+ * has buckets as wide as the whole level below, so any deadline fits in a
+ * few levels. Adding and cancelling are O(1) (doubly linked buckets plus an
+ * id map); advancing drains one level-0 bucket per tick and re-files a
+ * higher-level bucket into the levels below only when its slot comes up.
+ * An id fires no earlier than its deadline and at most one tick late.
+ */
+public class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Level> levels = new ArrayList<>();
+    private final Map<Integer, Node> nodes = new HashMap<>();
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        levels.add(new Level(tickMs, wheelSize, startMs));
+    }
+
+    /**
+     * Schedule (or reschedule) an id. Returns false if the deadline has
+     * already passed, in which case nothing is stored and the caller should
+     * treat the id as due now.
+     */
+    public synchronized boolean add(int id, long deadlineMs) {
+        cancel(id);
+        if (deadlineMs < levels.get(0).currentTime) {
+            return false;
+        }
+        Node node = new Node(id, deadlineMs);
+        nodes.put(id, node);
+        place(node);
+        return true;
+    }
+
+    /**
+     * Remove an id; returns false if it was not scheduled
+     */
+    public synchronized boolean cancel(int id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        node.bucket.remove(node);
+        return true;
+    }
+
+    public synchronized boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Move the clock to {@code nowMs} and hand every id whose deadline has passed to the consumer
+     */
+    public synchronized void advance(long nowMs, IntConsumer expired) {
+        Level first = levels.get(0);
+        while (first.currentTime + tickMs <= nowMs) {
+            // Every deadline in the current level-0 slot is now in the past
+            Node node = first.bucketAt(first.currentTime).drain();
+            while (node != null) {
+                Node next = node.next;
+                nodes.remove(node.id);
+                expired.accept(node.id);
+                node = next;
+            }
+            first.currentTime += tickMs;
+
+            // Higher levels whose slot just changed hand that slot down to the levels below
+            List<Node> refile = null;
+            for (int i = 1; i < levels.size(); i++) {
+                Level level = levels.get(i);
+                long slotStart = first.currentTime - Math.floorMod(first.currentTime, level.tick);
+                if (slotStart == level.currentTime) {
+                    break;
+                }
+                level.currentTime = slotStart;
+                Node head = level.bucketAt(slotStart).drain();
+                if (head != null) {
+                    if (refile == null) {
+                        refile = new ArrayList<>();
+                    }
+                    for (Node n = head; n != null; n = n.next) {
+                        refile.add(n);
+                    }
+                }
+            }
+            if (refile != null) {
+                refile.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Node node) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level below = levels.get(i - 1);
+                long tick = below.tick * wheelSize;
+                long now = levels.get(0).currentTime;
+                levels.add(new Level(tick, wheelSize, now - Math.floorMod(now, tick)));
+            }
+            Level level = levels.get(i);
+            // Lowest level whose window still reaches the deadline
+            if (node.deadline < level.currentTime + level.tick * wheelSize) {
+                level.bucketAt(node.deadline).add(node);
+                return;
+            }
+        }
+    }
+
+    private static final class Level {
+        private final long tick;
+        private final Bucket[] buckets;
+        private long currentTime;
+
+        Level(long tick, int size, long startMs) {
+            this.tick = tick;
+            this.buckets = new Bucket[size];
+            for (int i = 0; i < size; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - Math.floorMod(startMs, tick);
+        }
+
+        Bucket bucketAt(long timeMs) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(timeMs, tick), (long) buckets.length)];
+        }
+    }
+
+    private static final class Bucket {
+        private Node head;
+
+        void add(Node node) {
+            node.bucket = this;
+            node.prev = null;
+            node.next = head;
+            if (head != null) {
+                head.prev = node;
+            }
+            head = node;
+        }
+
+        void remove(Node node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+        }
+
+        // Detach the whole list; nodes keep their next links for iteration
+        Node drain() {
+            Node first = head;
+            head = null;
+            return first;
+        }
+    }
+
+    private static final class Node {
+        private final int id;
+        private final long deadline;
+        private Node prev;
+        private Node next;
+        private Bucket bucket;
+
+        Node(int id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+}
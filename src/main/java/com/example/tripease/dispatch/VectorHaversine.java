@@ -0,0 +1,43 @@
+package com.example.tripease.dispatch;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD body of {@link BulkHaversine}. Only loaded after the module check in
+ * BulkHaversine, so the application still starts without the incubator module.
+ */
+final class VectorHaversine {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorHaversine() {
+        // Private constructor to prevent instantiation
+    }
+
+    // A single lane would only add overhead over the scalar loop
+    static boolean isUseful() {
+        return SPECIES.length() > 1;
+    }
+
+    static void distancesKm(double lat, double lng, double[] lats, double[] lngs, int count, double[] out) {
+        double lat0 = lat * BulkHaversine.DEG_TO_RAD;
+        double lng0 = lng * BulkHaversine.DEG_TO_RAD;
+        double cosLat0 = Math.cos(lat0);
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector lat1 = DoubleVector.fromArray(SPECIES, lats, i).mul(BulkHaversine.DEG_TO_RAD);
+            DoubleVector lng1 = DoubleVector.fromArray(SPECIES, lngs, i).mul(BulkHaversine.DEG_TO_RAD);
+            DoubleVector sinLat = lat1.sub(lat0).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinLng = lng1.sub(lng0).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector a = sinLng.mul(sinLng).mul(lat1.lanewise(VectorOperators.COS)).mul(cosLat0)
+                    .add(sinLat.mul(sinLat));
+            a.sqrt().min(1.0).lanewise(VectorOperators.ASIN)
+                    .mul(2 * GeoMath.EARTH_RADIUS_KM)
+                    .intoArray(out, i);
+        }
+        BulkHaversine.scalarDistancesKm(lat, lng, lats, lngs, i, count, out);
+    }
+}
@@ -12,13 +12,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class CreateBookingRequest {
     private String pickupAddress;
-    private double pickupLat;
-    private double pickupLng;
     private String destinationAddress;
-    private double destinationLat;
-    private double destinationLng;
-    private double tripDistanceInKm;
-    private int estimatedTimeMin;
-    private double billAmount;
+    // Quote from /fare/calculate; coordinates, distance, duration and price are taken from it
+    private String quoteId;
     private RideType rideType;
 }
@@ -0,0 +1,28 @@
+package com.example.tripease.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLocationRequest {
+
+    @DecimalMin(value = "-90.0", message = "Invalid latitude")
+    @DecimalMax(value = "90.0", message = "Invalid latitude")
+    private double lat;
+
+    @DecimalMin(value = "-180.0", message = "Invalid longitude")
+    @DecimalMax(value = "180.0", message = "Invalid longitude")
+    private double lng;
+
+    // Driver is online and willing to take new rides (defaults to true); a driver
+    // on a trip stays busy whatever this says
+    @Builder.Default
+    private boolean available = true;
+}
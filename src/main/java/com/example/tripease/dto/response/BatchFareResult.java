@@ -0,0 +1,18 @@
+package com.example.tripease.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFareResult {
+    // Positions in the request this fare answers (identical pairs are computed once)
+    private List<Integer> indexes;
+    private FareCalculationResponse fare;
+}
@@ -19,5 +19,7 @@ public class FareCalculationResponse {
     private int durationMin;
     private String durationText;
     private List<FareEstimate> fareEstimates;
+    // Pass to booking creation; valid for fare.quote.ttl-ms and usable once
+    private String quoteId;
     private String message;
 }
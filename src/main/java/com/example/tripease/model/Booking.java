@@ -5,7 +5,9 @@ import com.example.tripease.Enum.TripStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.util.Date;
 
@@ -44,7 +46,10 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private RideType rideType;
 
+    // Plain varchar, not a MySQL ENUM, so adding a status needs no column change
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
     private TripStatus tripStatus;
 
     @CreationTimestamp
@@ -53,6 +58,11 @@ public class Booking {
     @UpdateTimestamp
     private Date lastUpdatedAt;
 
+    // Bumped by every lifecycle transition; also guards whole-entity saves
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     // External booking tracking (for bookings from other systems like ITM)
     private String sourceSystem; // e.g., "ITM" for Integrated Travel Management
     private Long externalBookingId; // ID in the source system
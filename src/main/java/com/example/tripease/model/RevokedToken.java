@@ -0,0 +1,36 @@
+package com.example.tripease.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * An access token revoked before its expiry (logout). Kept until the token
+ * would have expired anyway.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+public class RevokedToken {
+
+    // The token's jti claim
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    private Integer userId;
+
+    @Column(nullable = false)
+    private Date expiresAt;
+
+    @Column(nullable = false)
+    private Date revokedAt;
+}
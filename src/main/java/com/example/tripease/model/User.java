@@ -36,6 +36,11 @@ public class User implements UserDetails {
     // Reference ID to either Driver or Customer based on role
     private Integer referenceId;
 
+    // Embedded in issued tokens; incrementing it revokes all of them
+    @Builder.Default
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -3,8 +3,13 @@ package com.example.tripease.repository;
 import com.example.tripease.Enum.TripStatus;
 import com.example.tripease.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +36,44 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
     // Find bookings by driver email
     List<Booking> findByDriverEmailOrderByBookedAtDesc(String driverEmail);
+
+    // Atomically claim a pending, unassigned booking for a driver (returns 0 if someone else got it first)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.driverId = :driverId, b.driverEmail = :driverEmail, b.tripStatus = :accepted, " +
+            "b.version = b.version + 1, b.lastUpdatedAt = CURRENT_TIMESTAMP " +
+            "where b.bookingId = :bookingId and b.tripStatus = :pending and b.driverId is null")
+    int claimPendingBooking(@Param("bookingId") int bookingId,
+                            @Param("driverId") int driverId,
+                            @Param("driverEmail") String driverEmail,
+                            @Param("pending") TripStatus pending,
+                            @Param("accepted") TripStatus accepted);
+
+    // Move a booking to a new status only if it is still in one of the allowed source statuses
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.tripStatus = :to, b.version = b.version + 1, b.lastUpdatedAt = CURRENT_TIMESTAMP " +
+            "where b.bookingId = :bookingId and b.tripStatus in :from")
+    int transitionStatus(@Param("bookingId") int bookingId,
+                         @Param("from") Collection<TripStatus> from,
+                         @Param("to") TripStatus to);
+
+    // Same as transitionStatus, but only for the driver assigned to the booking
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.tripStatus = :to, b.version = b.version + 1, b.lastUpdatedAt = CURRENT_TIMESTAMP " +
+            "where b.bookingId = :bookingId and b.tripStatus in :from and b.driverId = :driverId")
+    int transitionStatusForDriver(@Param("bookingId") int bookingId,
+                                  @Param("from") Collection<TripStatus> from,
+                                  @Param("to") TripStatus to,
+                                  @Param("driverId") int driverId);
+
+    // Batched form of transitionStatus for many bookings at once
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.tripStatus = :to, b.version = b.version + 1, b.lastUpdatedAt = CURRENT_TIMESTAMP " +
+            "where b.bookingId in :bookingIds and b.tripStatus in :from")
+    int transitionStatusIn(@Param("bookingIds") Collection<Integer> bookingIds,
+                           @Param("from") Collection<TripStatus> from,
+                           @Param("to") TripStatus to);
 }
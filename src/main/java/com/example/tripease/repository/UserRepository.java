@@ -1,8 +1,14 @@
 package com.example.tripease.repository;
 
+import com.example.tripease.Enum.DocumentStatus;
+import com.example.tripease.Enum.Role;
 import com.example.tripease.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +17,53 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Everything a login needs in one round trip: credentials, token claims and, for drivers, name and document status
+    @Query("select u.id as id, u.email as email, u.password as password, u.role as role, " +
+            "u.referenceId as referenceId, u.tokenVersion as tokenVersion, d.name as driverName, " +
+            "dd.documentId as documentId, dd.documentStatus as documentStatus, dd.rejectedReason as rejectedReason " +
+            "from User u " +
+            "left join Driver d on d.driverId = u.referenceId and u.role = com.example.tripease.Enum.Role.DRIVER " +
+            "left join DriverDocuments dd on dd.driver = d " +
+            "where u.email = :email")
+    Optional<LoginView> findLoginByEmail(@Param("email") String email);
+
+    // Store a re-encoded password hash (encoder settings upgraded since it was created)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") int id, @Param("password") String password);
+
+    // Current token version only, checked against the ver claim of access tokens
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") int id);
+
+    // Invalidate every access token issued to the user so far
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    int incrementTokenVersion(@Param("id") int id);
+
+    interface LoginView {
+        Integer getId();
+
+        String getEmail();
+
+        String getPassword();
+
+        Role getRole();
+
+        Integer getReferenceId();
+
+        int getTokenVersion();
+
+        // Driver fields are null for other roles, and document fields for drivers without documents
+        String getDriverName();
+
+        Long getDocumentId();
+
+        DocumentStatus getDocumentStatus();
+
+        String getRejectedReason();
+    }
 }
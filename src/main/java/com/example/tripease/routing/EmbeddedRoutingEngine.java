@@ -0,0 +1,383 @@
+package com.example.tripease.routing;
+
+import com.example.tripease.dispatch.GeoMath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-process routing over a memory-mapped {@link RoadGraph}: no network I/O,
+ * so fare quotes do not depend on an external server. Origin and destination
+ * are snapped to the nearest graph node (within {@code routing.embedded.max-snap-meters})
+ * and the fastest path is found with bidirectional A*, using the average of
+ * the forward and backward straight-line potentials so both searches see the
+ * same reduced edge costs and can stop as soon as their frontiers meet.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "routing.engine", havingValue = "embedded")
+public class EmbeddedRoutingEngine implements RoutingEngine {
+
+    private static final int NONE = -1;
+
+    private final RoadGraph graph;
+    private final double maxSnapMeters;
+
+    // Fastest speed on any edge (metres per decisecond), makes distance / speed a lower bound on time
+    private final double maxSpeed;
+
+    // Snap grid: node ids bucketed by cell, cells sorted by packed key
+    private final double cellDegrees;
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+
+    // Search workspaces are large (a few ints per node), so they are reused rather than allocated per query
+    private final ConcurrentLinkedQueue<Search> workspaces = new ConcurrentLinkedQueue<>();
+
+    public EmbeddedRoutingEngine(@Value("${routing.embedded.graph-path}") String graphPath,
+            @Value("${routing.embedded.max-snap-meters:500}") double maxSnapMeters) throws IOException {
+        this(RoadGraph.map(Path.of(graphPath)), maxSnapMeters);
+        log.info("Embedded routing graph {} loaded: {} nodes, {} edges", graphPath, graph.nodeCount(),
+                graph.edgeCount());
+    }
+
+    public EmbeddedRoutingEngine(RoadGraph graph, double maxSnapMeters) {
+        this.graph = graph;
+        this.maxSnapMeters = maxSnapMeters;
+
+        double speed = 0;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (int e = graph.outStart(v); e < graph.outStart(v + 1); e++) {
+                int w = graph.outTarget(e);
+                double meters = straightMeters(v, w);
+                if (graph.outDeciseconds(e) > 0) {
+                    speed = Math.max(speed, meters / graph.outDeciseconds(e));
+                } else if (meters > 0) {
+                    // A free edge between distinct points bounds nothing: fall back to a zero potential (Dijkstra)
+                    speed = Double.POSITIVE_INFINITY;
+                }
+            }
+        }
+        this.maxSpeed = speed > 0 ? speed : 1;
+
+        // Cells at least as wide as the snap radius, so a snap looks at a few cells only
+        this.cellDegrees = Math.max(maxSnapMeters, 100) / (GeoMath.KM_PER_DEGREE_LAT * 1000);
+        int n = graph.nodeCount();
+        long[] keys = new long[n];
+        for (int v = 0; v < n; v++) {
+            keys[v] = cellKey(latIndex(graph.lat(v)), lngIndex(graph.lng(v)));
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        this.cellKeys = Arrays.copyOf(sorted, unique);
+        this.cellStart = new int[unique + 1];
+        int[] cellOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            cellOf[v] = Arrays.binarySearch(cellKeys, keys[v]);
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < unique; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] next = Arrays.copyOf(cellStart, unique);
+        this.cellNodes = new int[n];
+        for (int v = 0; v < n; v++) {
+            cellNodes[next[cellOf[v]]++] = v;
+        }
+    }
+
+    @Override
+    public CompletableFuture<RouteDistance> route(double originLat, double originLng, double destLat, double destLng) {
+        try {
+            return CompletableFuture.completedFuture(routeNow(originLat, originLng, destLat, destLng));
+        } catch (RoutingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Synchronous query; throws {@link NoRouteException} if a point is off the graph or unreachable
+     */
+    public RouteDistance routeNow(double originLat, double originLng, double destLat, double destLng) {
+        int source = nearestNode(originLat, originLng);
+        int target = nearestNode(destLat, destLng);
+        if (source == NONE || target == NONE) {
+            throw new NoRouteException("Point is more than " + maxSnapMeters + " m from the road graph");
+        }
+
+        long[] result = fastest(source, target);
+        if (result == null) {
+            throw new NoRouteException("No road connection between the points");
+        }
+        double distanceKm = Math.round(result[1] / 100.0) / 10.0; // Round to 1 decimal
+        int durationMin = (int) Math.round(result[0] / 600.0);
+        return RouteDistance.of(distanceKm, durationMin, false);
+    }
+
+    /**
+     * {deciseconds, meters} of the fastest path between two nodes, or null if unreachable
+     */
+    long[] fastest(int source, int target) {
+        Search search = workspaces.poll();
+        if (search == null) {
+            search = new Search(graph.nodeCount());
+        }
+        try {
+            return search.run(source, target);
+        } finally {
+            workspaces.offer(search);
+        }
+    }
+
+    /**
+     * Nearest graph node within the snap radius, or -1
+     */
+    int nearestNode(double lat, double lng) {
+        double latSpan = maxSnapMeters / (GeoMath.KM_PER_DEGREE_LAT * 1000);
+        double lngSpan = latSpan / Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        long minLat = latIndex(lat - latSpan);
+        long maxLat = latIndex(lat + latSpan);
+        long minLng = lngIndex(lng - lngSpan);
+        long maxLng = lngIndex(lng + lngSpan);
+
+        int best = NONE;
+        double bestMeters = maxSnapMeters;
+        for (long i = minLat; i <= maxLat; i++) {
+            for (long j = minLng; j <= maxLng; j++) {
+                int cell = Arrays.binarySearch(cellKeys, cellKey(i, j));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int v = cellNodes[k];
+                    double meters = GeoMath.haversineKm(lat, lng, graph.lat(v), graph.lng(v)) * 1000;
+                    if (meters <= bestMeters) {
+                        bestMeters = meters;
+                        best = v;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private double straightMeters(int a, int b) {
+        return GeoMath.haversineKm(graph.lat(a), graph.lng(a), graph.lat(b), graph.lng(b)) * 1000;
+    }
+
+    private long latIndex(double lat) {
+        return (long) Math.floor(lat / cellDegrees);
+    }
+
+    private long lngIndex(double lng) {
+        return (long) Math.floor(lng / cellDegrees);
+    }
+
+    private static long cellKey(long latIndex, long lngIndex) {
+        return (latIndex << 32) | (lngIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One bidirectional A* query's state. Arrays are sized to the graph and
+     * reset lazily with a per-query stamp instead of being cleared.
+     */
+    private final class Search {
+        private final int[] stampF;
+        private final int[] stampB;
+        private final int[] timeF;
+        private final int[] timeB;
+        private final int[] metersF;
+        private final int[] metersB;
+        private final int[] potentialStamp;
+        private final double[] potential;
+        private final Heap heapF = new Heap();
+        private final Heap heapB = new Heap();
+        private int stamp;
+
+        private double sourceLat;
+        private double sourceLng;
+        private double targetLat;
+        private double targetLng;
+
+        Search(int nodes) {
+            stampF = new int[nodes];
+            stampB = new int[nodes];
+            timeF = new int[nodes];
+            timeB = new int[nodes];
+            metersF = new int[nodes];
+            metersB = new int[nodes];
+            potentialStamp = new int[nodes];
+            potential = new double[nodes];
+        }
+
+        /**
+         * {deciseconds, meters} of the fastest path, or null if unreachable
+         */
+        long[] run(int source, int target) {
+            if (source == target) {
+                return new long[]{0, 0};
+            }
+            stamp++;
+            heapF.clear();
+            heapB.clear();
+            sourceLat = graph.lat(source);
+            sourceLng = graph.lng(source);
+            targetLat = graph.lat(target);
+            targetLng = graph.lng(target);
+
+            stampF[source] = stamp;
+            timeF[source] = 0;
+            metersF[source] = 0;
+            heapF.push(source, potential(source));
+            stampB[target] = stamp;
+            timeB[target] = 0;
+            metersB[target] = 0;
+            heapB.push(target, -potential(target));
+
+            long bestTime = Long.MAX_VALUE;
+            long bestMeters = 0;
+            while (!heapF.isEmpty() && !heapB.isEmpty()) {
+                // Keys are reduced distances, so the usual bidirectional stopping rule applies
+                if (heapF.minKey() + heapB.minKey() >= bestTime) {
+                    break;
+                }
+                boolean forward = heapF.minKey() <= heapB.minKey();
+                Heap heap = forward ? heapF : heapB;
+                double key = heap.minKey();
+                int v = heap.pop();
+                if (forward) {
+                    if (key > timeF[v] + potential(v) + 1e-6) {
+                        continue; // stale entry
+                    }
+                    for (int e = graph.outStart(v); e < graph.outStart(v + 1); e++) {
+                        int w = graph.outTarget(e);
+                        int time = timeF[v] + graph.outDeciseconds(e);
+                        if (stampF[w] != stamp || time < timeF[w]) {
+                            stampF[w] = stamp;
+                            timeF[w] = time;
+                            metersF[w] = metersF[v] + graph.outMeters(e);
+                            heapF.push(w, time + potential(w));
+                            if (stampB[w] == stamp && (long) time + timeB[w] < bestTime) {
+                                bestTime = (long) time + timeB[w];
+                                bestMeters = (long) metersF[w] + metersB[w];
+                            }
+                        }
+                    }
+                } else {
+                    if (key > timeB[v] - potential(v) + 1e-6) {
+                        continue; // stale entry
+                    }
+                    for (int e = graph.inStart(v); e < graph.inStart(v + 1); e++) {
+                        int w = graph.inSource(e);
+                        int time = timeB[v] + graph.inDeciseconds(e);
+                        if (stampB[w] != stamp || time < timeB[w]) {
+                            stampB[w] = stamp;
+                            timeB[w] = time;
+                            metersB[w] = metersB[v] + graph.inMeters(e);
+                            heapB.push(w, time - potential(w));
+                            if (stampF[w] == stamp && (long) time + timeF[w] < bestTime) {
+                                bestTime = (long) time + timeF[w];
+                                bestMeters = (long) metersF[w] + metersB[w];
+                            }
+                        }
+                    }
+                }
+            }
+            return bestTime == Long.MAX_VALUE ? null : new long[]{bestTime, bestMeters};
+        }
+
+        // Average potential (h_target - h_source) / 2, in deciseconds; cached per query
+        private double potential(int v) {
+            if (potentialStamp[v] != stamp) {
+                potentialStamp[v] = stamp;
+                double toTarget = GeoMath.haversineKm(graph.lat(v), graph.lng(v), targetLat, targetLng) * 1000;
+                double fromSource = GeoMath.haversineKm(graph.lat(v), graph.lng(v), sourceLat, sourceLng) * 1000;
+                potential[v] = (toTarget - fromSource) / (2 * maxSpeed);
+            }
+            return potential[v];
+        }
+    }
+
+    /**
+     * Binary min-heap of (node, key) pairs on primitive arrays; duplicates are allowed
+     * and skipped on pop when stale (lazy decrease-key)
+     */
+    private static final class Heap {
+        private int[] nodes = new int[256];
+        private double[] keys = new double[256];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double minKey() {
+            return keys[0];
+        }
+
+        void push(int node, double key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            if (size > 0) {
+                int node = nodes[size];
+                double key = keys[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && keys[child + 1] < keys[child]) {
+                        child++;
+                    }
+                    if (keys[child] >= key) {
+                        break;
+                    }
+                    nodes[i] = nodes[child];
+                    keys[i] = keys[child];
+                    i = child;
+                }
+                nodes[i] = node;
+                keys[i] = key;
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.tripease.routing;
+
+public class NoRouteException extends RoutingException {
+    public NoRouteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.tripease.routing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking client for an OSRM routing server. One shared
+ * {@link HttpClient} keeps connections alive and reuses them across
+ * requests; every request has a connect and an overall deadline, and a
+ * {@link CircuitBreaker} refuses calls straight away while the server keeps
+ * failing, so callers can fall back without waiting for a timeout.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "routing.engine", havingValue = "osrm", matchIfMissing = true)
+public class OsrmClient implements RoutingEngine {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final CircuitBreaker circuitBreaker;
+
+    public OsrmClient(ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${routing.osrm.base-url:https://router.project-osrm.org}") String baseUrl,
+            @Value("${routing.osrm.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${routing.osrm.timeout-ms:2000}") long timeoutMs,
+            @Value("${routing.osrm.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${routing.osrm.breaker.open-ms:30000}") long openMs) {
+        this(objectMapper, baseUrl, connectTimeoutMs, timeoutMs, new CircuitBreaker(failureThreshold, openMs));
+        Gauge.builder("routing.osrm.circuit.open", circuitBreaker,
+                breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+    }
+
+    OsrmClient(ObjectMapper objectMapper, String baseUrl, long connectTimeoutMs, long timeoutMs,
+            CircuitBreaker circuitBreaker) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.circuitBreaker = circuitBreaker;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    /**
+     * Driving route between two points. Completes exceptionally on error,
+     * timeout, or at once with {@link CircuitOpenException} while the circuit is open.
+     */
+    @Override
+    public CompletableFuture<RouteDistance> route(double originLat, double originLng, double destLat, double destLng) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException());
+        }
+
+        // Note: OSRM uses lng,lat order
+        String url = String.format(Locale.ROOT, "%s/route/v1/driving/%f,%f;%f,%f?overview=false",
+                baseUrl, originLng, originLat, destLng, destLat);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::parse)
+                .whenComplete((result, error) -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    // A server that answers "no route" is healthy; transport errors and non-200 replies count
+                    if (cause == null || cause instanceof NoRouteException) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                        log.warn("OSRM request failed: {}", cause.toString());
+                    }
+                });
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private RouteDistance parse(HttpResponse<byte[]> response) {
+        // Anything but 200 (5xx, 429 rate limiting, ...) is a server-side failure
+        if (response.statusCode() != 200) {
+            throw new RoutingException("OSRM returned HTTP " + response.statusCode());
+        }
+        JsonNode body;
+        try {
+            body = objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new RoutingException("Unreadable OSRM response: " + e.getMessage());
+        }
+        JsonNode route = body.path("routes").path(0);
+        if (!"Ok".equals(body.path("code").asText()) || route.isMissingNode()) {
+            throw new NoRouteException("OSRM found no route: " + body.path("code").asText());
+        }
+
+        // Distance in meters, duration in seconds
+        double distanceKm = Math.round(route.path("distance").asDouble() / 100.0) / 10.0; // Round to 1 decimal
+        int durationMin = (int) Math.round(route.path("duration").asDouble() / 60.0);
+        return RouteDistance.of(distanceKm, durationMin, false);
+    }
+
+    public static class CircuitOpenException extends RoutingException {
+        public CircuitOpenException() {
+            super("OSRM circuit is open");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.tripease.routing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Directed road graph in compressed sparse row form, read straight from a
+ * memory-mapped file so loading costs no parsing and the OS pages it in on
+ * demand. The file holds, as little-endian ints after a 16 byte header
+ * (magic, version, node count, edge count):
+ * <pre>
+ *   lat[n], lng[n]                                  microdegrees
+ *   outStart[n + 1], outTarget[m], outMeters[m], outDeciseconds[m]
+ *   inStart[n + 1],  inSource[m],  inMeters[m],  inDeciseconds[m]
+ * </pre>
+ * The reverse (incoming) adjacency is stored too, so a backward search needs
+ * no extra work at load time. Files are produced by {@link RoadGraphCompiler}.
+ */
+public final class RoadGraph {
+
+    static final int MAGIC = 0x54524752; // "TRGR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final double MICRODEGREES = 1_000_000.0;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final IntBuffer lat;
+    private final IntBuffer lng;
+    private final IntBuffer outStart;
+    private final IntBuffer outTarget;
+    private final IntBuffer outMeters;
+    private final IntBuffer outDeciseconds;
+    private final IntBuffer inStart;
+    private final IntBuffer inSource;
+    private final IntBuffer inMeters;
+    private final IntBuffer inDeciseconds;
+
+    private RoadGraph(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a road graph file (bad magic or version)");
+        }
+        this.nodeCount = buffer.getInt(8);
+        this.edgeCount = buffer.getInt(12);
+
+        int[] offset = {HEADER_BYTES};
+        this.lat = section(buffer, offset, nodeCount);
+        this.lng = section(buffer, offset, nodeCount);
+        this.outStart = section(buffer, offset, nodeCount + 1);
+        this.outTarget = section(buffer, offset, edgeCount);
+        this.outMeters = section(buffer, offset, edgeCount);
+        this.outDeciseconds = section(buffer, offset, edgeCount);
+        this.inStart = section(buffer, offset, nodeCount + 1);
+        this.inSource = section(buffer, offset, edgeCount);
+        this.inMeters = section(buffer, offset, edgeCount);
+        this.inDeciseconds = section(buffer, offset, edgeCount);
+    }
+
+    /**
+     * Map a graph file read-only into memory
+     */
+    public static RoadGraph map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new RoadGraph(buffer);
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public double lat(int node) {
+        return lat.get(node) / MICRODEGREES;
+    }
+
+    public double lng(int node) {
+        return lng.get(node) / MICRODEGREES;
+    }
+
+    public int outStart(int node) {
+        return outStart.get(node);
+    }
+
+    public int outTarget(int edge) {
+        return outTarget.get(edge);
+    }
+
+    public int outMeters(int edge) {
+        return outMeters.get(edge);
+    }
+
+    public int outDeciseconds(int edge) {
+        return outDeciseconds.get(edge);
+    }
+
+    public int inStart(int node) {
+        return inStart.get(node);
+    }
+
+    public int inSource(int edge) {
+        return inSource.get(edge);
+    }
+
+    public int inMeters(int edge) {
+        return inMeters.get(edge);
+    }
+
+    public int inDeciseconds(int edge) {
+        return inDeciseconds.get(edge);
+    }
+
+    private static IntBuffer section(ByteBuffer buffer, int[] offset, int length) {
+        IntBuffer view = buffer.slice(offset[0], length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        offset[0] += length * Integer.BYTES;
+        return view;
+    }
+}
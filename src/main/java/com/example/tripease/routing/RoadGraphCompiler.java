@@ -0,0 +1,184 @@
+package com.example.tripease.routing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline preprocessing step: turns a plain-text road network (for example
+ * exported from OpenStreetMap) into the binary {@link RoadGraph} file.
+ * Input lines, '#' starts a comment:
+ * <pre>
+ *   N,&lt;nodeId&gt;,&lt;lat&gt;,&lt;lng&gt;
+ *   E,&lt;fromId&gt;,&lt;toId&gt;,&lt;meters&gt;,&lt;seconds&gt;[,oneway]
+ * </pre>
+ * Edges are two-way unless marked oneway. Node ids may be any longs; they are
+ * renumbered densely in the order they appear.
+ * Usage: {@code java ... RoadGraphCompiler <input.csv> <output.graph>}
+ */
+public final class RoadGraphCompiler {
+
+    private RoadGraphCompiler() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: RoadGraphCompiler <input.csv> <output.graph>");
+            System.exit(1);
+        }
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            compile(reader, Path.of(args[1]));
+        }
+    }
+
+    public static void compile(Reader input, Path output) throws IOException {
+        Map<Long, Integer> nodeIndex = new HashMap<>();
+        IntList lats = new IntList();
+        IntList lngs = new IntList();
+        IntList from = new IntList();
+        IntList to = new IntList();
+        IntList meters = new IntList();
+        IntList deciseconds = new IntList();
+
+        BufferedReader reader = new BufferedReader(input);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s*,\\s*");
+            try {
+                if (parts[0].equals("N")) {
+                    nodeIndex.put(Long.parseLong(parts[1]), lats.size());
+                    lats.add((int) Math.round(Double.parseDouble(parts[2]) * RoadGraph.MICRODEGREES));
+                    lngs.add((int) Math.round(Double.parseDouble(parts[3]) * RoadGraph.MICRODEGREES));
+                } else if (parts[0].equals("E")) {
+                    int source = node(nodeIndex, parts[1]);
+                    int target = node(nodeIndex, parts[2]);
+                    int length = (int) Math.round(Double.parseDouble(parts[3]));
+                    // Zero-time edges would make the A* lower bound useless
+                    int time = Math.max(1, (int) Math.round(Double.parseDouble(parts[4]) * 10));
+                    boolean oneway = parts.length > 5 && parts[5].equalsIgnoreCase("oneway");
+                    from.add(source);
+                    to.add(target);
+                    meters.add(length);
+                    deciseconds.add(time);
+                    if (!oneway) {
+                        from.add(target);
+                        to.add(source);
+                        meters.add(length);
+                        deciseconds.add(time);
+                    }
+                } else {
+                    throw new IllegalArgumentException("unknown record type " + parts[0]);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        write(output, lats.toArray(), lngs.toArray(), from.toArray(), to.toArray(), meters.toArray(),
+                deciseconds.toArray());
+    }
+
+    static void write(Path output, int[] lat, int[] lng, int[] from, int[] to, int[] meters, int[] deciseconds)
+            throws IOException {
+        int n = lat.length;
+        int m = from.length;
+        long bytes = RoadGraph.HEADER_BYTES + 4L * (2L * n + 2L * (n + 1) + 8L * m);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph too large for a single mapped file: " + bytes + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(RoadGraph.MAGIC).putInt(RoadGraph.VERSION).putInt(n).putInt(m);
+        putAll(buffer, lat);
+        putAll(buffer, lng);
+        writeAdjacency(buffer, n, from, to, meters, deciseconds);
+        writeAdjacency(buffer, n, to, from, meters, deciseconds);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // CSR grouped by 'key' (source for outgoing, target for incoming), counting sort keeps it O(n + m)
+    private static void writeAdjacency(ByteBuffer buffer, int n, int[] key, int[] other, int[] meters,
+            int[] deciseconds) {
+        int m = key.length;
+        int[] start = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            start[key[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v];
+        }
+        int[] next = Arrays.copyOf(start, n);
+        int[] order = new int[m];
+        for (int e = 0; e < m; e++) {
+            order[next[key[e]]++] = e;
+        }
+
+        putAll(buffer, start);
+        for (int e : order) {
+            buffer.putInt(other[e]);
+        }
+        for (int e : order) {
+            buffer.putInt(meters[e]);
+        }
+        for (int e : order) {
+            buffer.putInt(deciseconds[e]);
+        }
+    }
+
+    private static void putAll(ByteBuffer buffer, int[] values) {
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+    }
+
+    private static int node(Map<Long, Integer> nodeIndex, String id) {
+        Integer index = nodeIndex.get(Long.parseLong(id.strip()));
+        if (index == null) {
+            throw new IllegalArgumentException("edge refers to unknown node " + id);
+        }
+        return index;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.tripease.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of routed distances in front of the routing backend. Origin
+ * and destination are snapped to a grid of {@code routing.cache.grid-meters}
+ * so repeat trips (airports, stations, commuters) hit the same entry even
+ * when the coordinates differ by a few metres. Entries are evicted by total
+ * estimated size (least recently used first) and after a TTL; hit and miss
+ * counts are published as {@code cache.gets{cache=route-distance}}.
+ * Concurrent async misses for the same snapped pair are coalesced into a
+ * single routing call (joiners counted in {@code routing.cache.coalesced},
+ * pending lookups in {@code routing.cache.in-flight}), so a
+ * burst of identical requests cannot stampede the routing backend.
+ */
+@Component
+public class RouteCache {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    // Rough heap cost of one entry: key, record, two short strings and map node
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final double stepDegrees;
+    private final Cache<RouteKey, RouteDistance> cache;
+    private final ConcurrentHashMap<RouteKey, CompletableFuture<RouteDistance>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public RouteCache(MeterRegistry meterRegistry,
+            @Value("${routing.cache.grid-meters:50}") double gridMeters,
+            @Value("${routing.cache.ttl-ms:3600000}") long ttlMs,
+            @Value("${routing.cache.max-bytes:16777216}") long maxBytes) {
+        this.stepDegrees = gridMeters / METERS_PER_DEGREE;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((RouteKey key, RouteDistance value) -> ENTRY_OVERHEAD_BYTES
+                        + 2 * (value.distanceText().length() + value.durationText().length()))
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "route-distance");
+        this.coalesced = Counter.builder("routing.cache.coalesced")
+                .description("Route lookups that joined an identical lookup already in flight")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("routing.cache.in-flight", Tags.empty(), inFlight);
+    }
+
+    /**
+     * Cached distance for the snapped pair, or the loader's result. Approximate
+     * (fallback) results are returned but not cached, so the next call retries routing.
+     */
+    public RouteDistance get(double originLat, double originLng, double destLat, double destLng,
+            Supplier<RouteDistance> loader) {
+        RouteKey key = keyOf(originLat, originLng, destLat, destLng);
+        RouteDistance cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        RouteDistance loaded = loader.get();
+        if (loaded != null && !loaded.approximate()) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Non-blocking form of {@link #get}: a hit completes immediately, a miss
+     * caches the loaded value once it arrives (unless it is approximate).
+     * While a miss is being loaded, further calls for the same snapped pair
+     * share its result instead of invoking the loader again.
+     */
+    public CompletableFuture<RouteDistance> getAsync(double originLat, double originLng, double destLat,
+            double destLng, Supplier<CompletableFuture<RouteDistance>> loader) {
+        RouteKey key = keyOf(originLat, originLng, destLat, destLng);
+        RouteDistance cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<RouteDistance> promise = new CompletableFuture<>();
+        CompletableFuture<RouteDistance> leader = inFlight.putIfAbsent(key, promise);
+        if (leader != null) {
+            coalesced.increment();
+            // A copy, so one caller cancelling does not cancel the lookup for everyone
+            return leader.copy();
+        }
+        // A load may have finished between the cache miss above and putIfAbsent
+        cached = cache.getIfPresent(key);
+        if (cached != null) {
+            inFlight.remove(key, promise);
+            promise.complete(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<RouteDistance> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((loaded, error) -> {
+            // Cache before leaving the in-flight map, so no caller in between sees neither
+            if (error == null && loaded != null && !loaded.approximate()) {
+                cache.put(key, loaded);
+            }
+            inFlight.remove(key, promise);
+            if (error != null) {
+                promise.completeExceptionally(error);
+            } else {
+                promise.complete(loaded);
+            }
+        });
+        return promise.copy();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    RouteKey keyOf(double originLat, double originLng, double destLat, double destLng) {
+        return new RouteKey(cell(originLat, originLng), cell(destLat, destLng));
+    }
+
+    // Grid cell packed into a long: latitude index in the high half, longitude index in the low half
+    private long cell(double lat, double lng) {
+        long latIndex = Math.round(lat / stepDegrees);
+        long lngIndex = Math.round(lng / stepDegrees);
+        return (latIndex << 32) | (lngIndex & 0xFFFFFFFFL);
+    }
+
+    record RouteKey(long origin, long destination) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.tripease.routing;
+
+/**
+ * Road distance and duration between two points. {@code approximate} is set
+ * when the value is a straight-line estimate rather than a routed one, so
+ * callers know not to cache it.
+ */
+public record RouteDistance(double distanceKm, String distanceText, int durationMin, String durationText,
+        boolean approximate) {
+
+    public static RouteDistance of(double distanceKm, int durationMin, boolean approximate) {
+        return new RouteDistance(distanceKm, formatDistance(distanceKm), durationMin,
+                formatDuration(durationMin), approximate);
+    }
+
+    /**
+     * "12.3 km"; same text as {@code String.format("%.1f km")} without the
+     * formatter's parsing and boxing
+     */
+    public static String formatDistance(double distanceKm) {
+        long tenths = Math.round(distanceKm * 10);
+        return tenths / 10 + "." + tenths % 10 + " km";
+    }
+
+    public static String formatDuration(int minutes) {
+        if (minutes < 60) {
+            return minutes + " mins";
+        }
+        int hours = minutes / 60;
+        int mins = minutes % 60;
+        return hours + " hr " + mins + " mins";
+    }
+}
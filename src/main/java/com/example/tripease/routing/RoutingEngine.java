@@ -0,0 +1,17 @@
+package com.example.tripease.routing;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of driving distance and duration between two points. Selected with
+ * {@code routing.engine}: {@code osrm} calls an OSRM server over HTTP,
+ * {@code embedded} answers in-process from a preprocessed road graph.
+ */
+public interface RoutingEngine {
+
+    /**
+     * Completes with the route, or exceptionally with a {@link RoutingException}
+     * ({@link NoRouteException} when the points cannot be connected)
+     */
+    CompletableFuture<RouteDistance> route(double originLat, double originLng, double destLat, double destLng);
+}
@@ -0,0 +1,7 @@
+package com.example.tripease.routing;
+
+public class RoutingException extends RuntimeException {
+    public RoutingException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.tripease.security;
 
+import com.example.tripease.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +24,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersions tokenVersions;
+    private final RevokedTokens revokedTokens;
 
     @Override
     protected void doFilterInternal(
@@ -42,18 +46,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Verified once (or served from the verified-token cache) and reused below
+            final Claims claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
 
             // If user email exists and no authentication is set
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                JwtPrincipal principal = jwtService.principalOf(claims);
+                if (principal == null) {
+                    principal = loadPrincipal(claims, userEmail);
+                } else if (!tokenVersions.isCurrent(principal.userId(), jwtService.tokenVersionOf(claims))) {
+                    // Revoked: the user's token version moved on since this token was issued
+                    principal = null;
+                }
+                if (principal != null && claims.getId() != null && revokedTokens.isRevoked(claims.getId())) {
+                    // This token alone was revoked (logout)
+                    principal = null;
+                }
 
-                // Validate token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities());
+                            principal.authorities());
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -65,4 +80,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Tokens issued before the user claims existed: look the user up as before
+    private JwtPrincipal loadPrincipal(Claims claims, String userEmail) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (userDetails instanceof User user && jwtService.isTokenValid(claims, userDetails)) {
+            return JwtPrincipal.from(user);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,52 @@
+package com.example.tripease.security;
+
+import com.example.tripease.Enum.Role;
+import com.example.tripease.exception.UnauthorizedException;
+import com.example.tripease.model.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The authenticated user as described by the access token's claims. The
+ * JWT filter sets it as the principal, so controllers and services get the
+ * role and referenceId (driver or customer id) without loading the user.
+ */
+public record JwtPrincipal(int userId, String email, Role role, Integer referenceId) implements Principal {
+
+    public static JwtPrincipal from(User user) {
+        return new JwtPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getReferenceId());
+    }
+
+    /**
+     * The principal of the current request, if it was authenticated with a token
+     */
+    public static Optional<JwtPrincipal> current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof JwtPrincipal principal
+                ? Optional.of(principal)
+                : Optional.empty();
+    }
+
+    public static JwtPrincipal require() {
+        return current().orElseThrow(() -> new UnauthorizedException("User not authenticated. Please log in again."));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean hasRole(Role expected) {
+        return role == expected;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
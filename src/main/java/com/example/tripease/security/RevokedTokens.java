@@ -0,0 +1,157 @@
+package com.example.tripease.security;
+
+import com.example.tripease.model.RevokedToken;
+import com.example.tripease.repository.RevokedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Individually revoked access tokens (logout), by jti. Revocations are
+ * persisted in {@code revoked_tokens} and mirrored in an in-memory
+ * {@link BloomFilter}, so the check on every authenticated request is a
+ * constant-time negative for almost all tokens; only a filter hit (a
+ * revoked token or a rare false positive) goes to the database, and that
+ * answer is cached briefly. The filter picks up revocations from other
+ * instances every {@code jwt.revocation.refresh-ms} and is rebuilt from the
+ * table every {@code jwt.revocation.rebuild-ms}, which also drops
+ * revocations of tokens that have expired anyway. Revoking all of a user's
+ * tokens at once goes through {@link TokenVersions} instead.
+ */
+@Slf4j
+@Component
+public class RevokedTokens {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final long refreshMs;
+    private final long rebuildMs;
+    private final LongSupplier clock;
+
+    // Database answers for filter hits; kept shorter than the refresh interval
+    private final Cache<String, Boolean> confirmed;
+    private final Counter negatives;
+    private final Counter falsePositives;
+    private final Counter revokedHits;
+
+    private volatile BloomFilter filter;
+    private long refreshedFrom;
+    private long lastRebuild;
+
+    public RevokedTokens(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry,
+            @Value("${jwt.revocation.expected-tokens:100000}") long expectedTokens,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${jwt.revocation.refresh-ms:15000}") long refreshMs,
+            @Value("${jwt.revocation.rebuild-ms:3600000}") long rebuildMs) {
+        this(revokedTokenRepository, meterRegistry, expectedTokens, falsePositiveRate, refreshMs, rebuildMs,
+                System::currentTimeMillis);
+    }
+
+    RevokedTokens(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry, long expectedTokens,
+            double falsePositiveRate, long refreshMs, long rebuildMs, LongSupplier clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshMs = refreshMs;
+        this.rebuildMs = rebuildMs;
+        this.clock = clock;
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(refreshMs))
+                .build();
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        this.negatives = checks(meterRegistry, "negative");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        this.revokedHits = checks(meterRegistry, "revoked");
+        Gauge.builder("auth.revocation.filter.bits", this, tokens -> tokens.filter.bitCount())
+                .description("Size of the revoked-token Bloom filter")
+                .register(meterRegistry);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.revocation.checks")
+                .description("Revoked-token checks by outcome; only non-negative ones query the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            negatives.increment();
+            return false;
+        }
+        boolean revoked = confirmed.get(tokenId, revokedTokenRepository::existsById);
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    /**
+     * Revoke one token until it expires. Takes effect at once on this
+     * instance and within the refresh interval on the others.
+     */
+    public void revoke(String tokenId, Integer userId, Date expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .revokedAt(new Date(clock.getAsLong()))
+                .build());
+        confirmed.put(tokenId, true);
+        // Under the rebuild lock, so a rebuild that read the table before this save cannot drop it
+        synchronized (this) {
+            filter.add(tokenId);
+        }
+    }
+
+    /**
+     * Pull in revocations made since the last refresh (also by other
+     * instances), rebuilding the whole filter when it is due
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:15000}",
+            initialDelayString = "${jwt.revocation.refresh-ms:15000}")
+    public synchronized void refresh() {
+        long now = clock.getAsLong();
+        if (now - lastRebuild >= rebuildMs) {
+            rebuild();
+            return;
+        }
+        // Overlap the previous window so clock skew between instances cannot drop a revocation
+        Date since = new Date(refreshedFrom - refreshMs);
+        List<String> tokenIds = revokedTokenRepository.findTokenIdsRevokedSince(since, new Date(now));
+        BloomFilter current = filter;
+        tokenIds.forEach(current::add);
+        refreshedFrom = now;
+    }
+
+    synchronized void rebuild() {
+        long now = clock.getAsLong();
+        int deleted = revokedTokenRepository.deleteExpired(new Date(now));
+        List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(new Date(now));
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2L * tokenIds.size()), falsePositiveRate);
+        tokenIds.forEach(rebuilt::add);
+        filter = rebuilt;
+        // The next refresh re-reads from before this load, covering revocations saved while it ran
+        refreshedFrom = now;
+        lastRebuild = now;
+        log.info("Revoked-token filter rebuilt with {} tokens ({} expired revocations removed)",
+                tokenIds.size(), deleted);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.tripease.security;
+
+import com.example.tripease.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user token versions for revoking access tokens. Every token carries
+ * the user's {@code tokenVersion} at issue time; bumping the stored version
+ * invalidates all tokens issued before. Versions are cached per user for
+ * {@code jwt.version-cache.ttl-ms}, so the users table is read once per user
+ * per TTL rather than once per request. A revocation takes effect at once on
+ * this instance and within the TTL on the others.
+ */
+@Component
+public class TokenVersions {
+
+    private final UserRepository userRepository;
+    private final LoadingCache<Integer, Integer> versions;
+
+    public TokenVersions(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${jwt.version-cache.ttl-ms:30000}") long ttlMs,
+            @Value("${jwt.version-cache.max-users:100000}") long maxUsers) {
+        this.userRepository = userRepository;
+        // A user that no longer exists loads as absent, which fails isCurrent
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build(userId -> userRepository.findTokenVersionById(userId).orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt-token-versions");
+    }
+
+    /**
+     * True when a token issued at {@code tokenVersion} has not been revoked
+     */
+    public boolean isCurrent(int userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     */
+    public void revokeAll(int userId) {
+        userRepository.incrementTokenVersion(userId);
+        versions.invalidate(userId);
+    }
+}
@@ -8,25 +8,28 @@ import com.example.tripease.dto.request.LoginRequest;
 import com.example.tripease.dto.response.AuthResponse;
 import com.example.tripease.exception.BadRequestException;
 import com.example.tripease.exception.DuplicateResourceException;
-import com.example.tripease.exception.ResourceNotFoundException;
 import com.example.tripease.exception.UnauthorizedException;
 import com.example.tripease.model.Customer;
 import com.example.tripease.model.Driver;
 import com.example.tripease.model.User;
 import com.example.tripease.repository.CustomerRepository;
-import com.example.tripease.repository.DriverDocumentsRepository;
 import com.example.tripease.repository.DriverRepository;
 import com.example.tripease.repository.UserRepository;
+import com.example.tripease.security.JwtPrincipal;
 import com.example.tripease.security.JwtService;
+import com.example.tripease.security.RevokedTokens;
+import com.example.tripease.security.TokenVersions;
 import com.example.tripease.transformer.AuthResponseTransformer;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -34,11 +37,14 @@ public class AuthService {
 
         private final UserRepository userRepository;
         private final DriverRepository driverRepository;
-        private final DriverDocumentsRepository driverDocumentsRepository;
         private final CustomerRepository customerRepository;
         private final PasswordEncoder passwordEncoder;
         private final JwtService jwtService;
-        private final AuthenticationManager authenticationManager;
+        private final TokenVersions tokenVersions;
+        private final RevokedTokens revokedTokens;
+
+        // Hash checked for unknown emails; created on first use
+        private volatile String unknownUserHash;
 
         @Transactional
         public AuthResponse registerDriver(DriverRegisterRequest request) {
@@ -103,88 +109,56 @@ public class AuthService {
         }
 
         public AuthResponse loginDriver(LoginRequest request) {
-                try {
-                        authenticationManager.authenticate(
-                                        new UsernamePasswordAuthenticationToken(
-                                                        request.getEmail(),
-                                                        request.getPassword()));
-                } catch (Exception e) {
-                        throw new UnauthorizedException("Invalid email or password");
-                }
-
-                User user = userRepository.findByEmail(request.getEmail())
-                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+                UserRepository.LoginView login = authenticate(request);
 
                 // Validate that user is a DRIVER
-                if (user.getRole() != Role.DRIVER) {
+                if (login.getRole() != Role.DRIVER) {
                         throw new UnauthorizedException("This login is for drivers only. Please use customer login.");
                 }
 
-                // Get driver
-                Driver driver = driverRepository.findById(user.getReferenceId())
-                                .orElse(null);
-                String driverName = driver != null ? driver.getName() : "";
+                String driverName = login.getDriverName() != null ? login.getDriverName() : "";
 
                 // Check if documents are approved
-                var documentsOpt = driverDocumentsRepository.findByDriverDriverId(user.getReferenceId());
-                if (documentsOpt.isEmpty()) {
+                if (login.getDocumentId() == null) {
                         throw new BadRequestException("Please complete document verification first");
                 }
 
-                var documents = documentsOpt.get();
-                if (documents.getDocumentStatus() != DocumentStatus.APPROVED) {
-                        String statusMessage = documents.getDocumentStatus() == DocumentStatus.PENDING
+                if (login.getDocumentStatus() != DocumentStatus.APPROVED) {
+                        String statusMessage = login.getDocumentStatus() == DocumentStatus.PENDING
                                         ? "Your documents are pending verification. Please wait for approval."
-                                        : "Your documents were rejected. Reason: " + documents.getRejectedReason();
+                                        : "Your documents were rejected. Reason: " + login.getRejectedReason();
                         throw new BadRequestException(statusMessage);
                 }
 
+                User user = toUser(login);
                 String token = jwtService.generateToken(user);
 
                 return AuthResponseTransformer.toDriverLoginSuccess(user, driverName, token);
         }
 
         public AuthResponse loginCustomer(LoginRequest request) {
-                try {
-                        authenticationManager.authenticate(
-                                        new UsernamePasswordAuthenticationToken(
-                                                        request.getEmail(),
-                                                        request.getPassword()));
-                } catch (Exception e) {
-                        throw new UnauthorizedException("Invalid email or password");
-                }
-
-                User user = userRepository.findByEmail(request.getEmail())
-                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+                UserRepository.LoginView login = authenticate(request);
 
                 // Validate that user is a CUSTOMER
-                if (user.getRole() != Role.CUSTOMER) {
+                if (login.getRole() != Role.CUSTOMER) {
                         throw new UnauthorizedException("This login is for customers only. Please use driver login.");
                 }
 
+                User user = toUser(login);
                 String token = jwtService.generateToken(user);
 
                 return AuthResponseTransformer.toCustomerLoginSuccess(user, token);
         }
 
         public AuthResponse loginValidator(LoginRequest request) {
-                try {
-                        authenticationManager.authenticate(
-                                        new UsernamePasswordAuthenticationToken(
-                                                        request.getEmail(),
-                                                        request.getPassword()));
-                } catch (Exception e) {
-                        throw new UnauthorizedException("Invalid email or password");
-                }
-
-                User user = userRepository.findByEmail(request.getEmail())
-                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+                UserRepository.LoginView login = authenticate(request);
 
                 // Validate that user is a VALIDATOR
-                if (user.getRole() != Role.VALIDATOR) {
+                if (login.getRole() != Role.VALIDATOR) {
                         throw new UnauthorizedException("Access denied. This login is for validators only.");
                 }
 
+                User user = toUser(login);
                 String token = jwtService.generateToken(user);
 
                 return AuthResponseTransformer.toValidatorLoginSuccess(user, token);
@@ -208,4 +182,68 @@ public class AuthService {
 
                 return AuthResponseTransformer.toValidatorRegistrationSuccess();
         }
+
+        /**
+         * Revoke the bearer token used for this request only
+         */
+        public void logout(String authorizationHeader) {
+                // Authenticated by the JWT filter, so the header holds a valid, unrevoked bearer token
+                JwtPrincipal user = JwtPrincipal.require();
+                Claims claims = jwtService.extractAllClaims(authorizationHeader.substring("Bearer ".length()));
+                if (claims.getId() == null) {
+                        throw new BadRequestException(
+                                        "This token cannot be revoked on its own. Use logout from all devices.");
+                }
+                revokedTokens.revoke(claims.getId(), user.userId(), claims.getExpiration());
+        }
+
+        /**
+         * Revoke every token issued to the current user, including the one
+         * used for this request
+         */
+        public void logoutEverywhere() {
+                tokenVersions.revokeAll(JwtPrincipal.require().userId());
+        }
+
+        /**
+         * Load the login projection (one query) and check the password against it.
+         * Unknown emails still pay for one hash check, so response time does not
+         * reveal which emails are registered.
+         */
+        private UserRepository.LoginView authenticate(LoginRequest request) {
+                Optional<UserRepository.LoginView> found = userRepository.findLoginByEmail(request.getEmail());
+                if (found.isEmpty()) {
+                        passwordEncoder.matches(request.getPassword(), unknownUserHash());
+                        throw new UnauthorizedException("Invalid email or password");
+                }
+                UserRepository.LoginView login = found.get();
+                if (!passwordEncoder.matches(request.getPassword(), login.getPassword())) {
+                        throw new UnauthorizedException("Invalid email or password");
+                }
+                if (passwordEncoder.upgradeEncoding(login.getPassword())) {
+                        userRepository.updatePassword(login.getId(), passwordEncoder.encode(request.getPassword()));
+                        log.info("Upgraded password hash for user {}", login.getId());
+                }
+                return login;
+        }
+
+        private String unknownUserHash() {
+                String hash = unknownUserHash;
+                if (hash == null) {
+                        hash = passwordEncoder.encode(UUID.randomUUID().toString());
+                        unknownUserHash = hash;
+                }
+                return hash;
+        }
+
+        // Detached user carrying the fields tokens and auth responses are built from
+        private static User toUser(UserRepository.LoginView login) {
+                return User.builder()
+                                .id(login.getId())
+                                .email(login.getEmail())
+                                .role(login.getRole())
+                                .referenceId(login.getReferenceId())
+                                .tokenVersion(login.getTokenVersion())
+                                .build();
+        }
 }
@@ -0,0 +1,117 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.BookingTransition;
+import com.example.tripease.dispatch.PendingBookingEvent;
+import com.example.tripease.dispatch.PendingBookingIndex;
+import com.example.tripease.dispatch.TimingWheel;
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.model.Booking;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expires bookings that stay PENDING past their deadline. Every pending
+ * booking's deadline sits in a {@link TimingWheel}, filed when the booking is
+ * created and dropped when it leaves the pool, so each tick only touches the
+ * bookings that are actually due instead of scanning the Booking table.
+ * Due bookings are moved to EXPIRED in batched updates.
+ */
+@Slf4j
+@Service
+public class BookingExpiryService {
+
+    private final BookingStateMachine bookingStateMachine;
+    private final ExternalRideService externalRideService;
+    private final PendingBookingIndex pendingBookingIndex;
+    private final long pendingTtlMs;
+    private final int batchSize;
+    private final TimingWheel wheel;
+
+    // Ids whose deadline passed, waiting for the next batched update
+    private final List<Integer> due = new ArrayList<>();
+
+    public BookingExpiryService(BookingStateMachine bookingStateMachine,
+            ExternalRideService externalRideService,
+            PendingBookingIndex pendingBookingIndex,
+            @Value("${booking.expiry.pending-ttl-ms:600000}") long pendingTtlMs,
+            @Value("${booking.expiry.tick-ms:1000}") long tickMs,
+            @Value("${booking.expiry.batch-size:500}") int batchSize) {
+        this.bookingStateMachine = bookingStateMachine;
+        this.externalRideService = externalRideService;
+        this.pendingBookingIndex = pendingBookingIndex;
+        this.pendingTtlMs = pendingTtlMs;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMs, 512, System.currentTimeMillis());
+    }
+
+    /**
+     * File the deadlines of bookings that were already pending at startup
+     */
+    @PostConstruct
+    public void load() {
+        for (BookingDetailsResponse booking : pendingBookingIndex.snapshot()) {
+            long bookedAt = booking.getBookedAt() != null ? booking.getBookedAt().getTime() : System.currentTimeMillis();
+            schedule(booking.getBookingId(), bookedAt);
+        }
+        log.info("Booking expiry loaded {} pending deadlines", wheel.size());
+    }
+
+    @EventListener
+    public void onPendingBookingEvent(PendingBookingEvent event) {
+        if (event.type() == PendingBookingEvent.Type.CREATED) {
+            Booking booking = event.booking();
+            long bookedAt = booking.getBookedAt() != null ? booking.getBookedAt().getTime() : System.currentTimeMillis();
+            schedule(booking.getBookingId(), bookedAt);
+        } else {
+            wheel.cancel(event.bookingId());
+        }
+    }
+
+    /**
+     * Advance the wheel and expire whatever came due, one UPDATE per batch
+     */
+    @Scheduled(fixedDelayString = "${booking.expiry.tick-ms:1000}")
+    public void expireDue() {
+        List<Integer> batch;
+        synchronized (due) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+            if (due.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(due);
+            due.clear();
+        }
+
+        int expired = 0;
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Booking> moved = bookingStateMachine.fireAll(
+                    batch.subList(from, Math.min(from + batchSize, batch.size())), BookingTransition.EXPIRE);
+            for (Booking booking : moved) {
+                if (Boolean.TRUE.equals(booking.getIsExternalBooking())) {
+                    externalRideService.notifyExternalSystem(booking, booking.getCallbackUrl());
+                }
+            }
+            expired += moved.size();
+        }
+        log.info("Expired {} of {} pending bookings past their deadline", expired, batch.size());
+    }
+
+    public int scheduledCount() {
+        return wheel.size();
+    }
+
+    private void schedule(int bookingId, long bookedAt) {
+        if (!wheel.add(bookingId, bookedAt + pendingTtlMs)) {
+            synchronized (due) {
+                due.add(bookingId);
+            }
+        }
+    }
+}
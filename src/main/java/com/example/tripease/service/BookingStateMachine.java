@@ -0,0 +1,210 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.BookingTransition;
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dispatch.DriverLocationRegistry;
+import com.example.tripease.dispatch.PendingBookingEvent;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Single owner of the booking lifecycle. Allowed moves live in one
+ * transition table over {@link TripStatus}; each move is executed as one
+ * conditional UPDATE whose WHERE clause carries the source statuses and the
+ * guard, so concurrent requests cannot both win and no row is loaded first.
+ * Hooks run after a transition is applied (events, driver availability).
+ */
+@Slf4j
+@Component
+public class BookingStateMachine {
+
+    // Transitions that only the assigned driver may fire
+    private static final EnumSet<BookingTransition> DRIVER_GUARDED =
+            EnumSet.of(BookingTransition.START, BookingTransition.COMPLETE);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<TripStatus, Map<BookingTransition, TripStatus>> table = new EnumMap<>(TripStatus.class);
+    private final Map<BookingTransition, EnumSet<TripStatus>> sources = new EnumMap<>(BookingTransition.class);
+    private final Map<BookingTransition, TripStatus> targets = new EnumMap<>(BookingTransition.class);
+    private final Map<BookingTransition, List<Consumer<Booking>>> hooks = new EnumMap<>(BookingTransition.class);
+
+    private final Map<BookingTransition, Counter> applied = new EnumMap<>(BookingTransition.class);
+    private final Map<BookingTransition, Counter> refused = new EnumMap<>(BookingTransition.class);
+    private final Map<BookingTransition, Timer> timers = new EnumMap<>(BookingTransition.class);
+
+    public BookingStateMachine(BookingRepository bookingRepository,
+            ApplicationEventPublisher eventPublisher,
+            DriverLocationRegistry driverLocationRegistry,
+            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+
+        allow(TripStatus.PENDING, BookingTransition.ACCEPT, TripStatus.ACCEPTED);
+        allow(TripStatus.PENDING, BookingTransition.CANCEL, TripStatus.CANCELLED);
+        allow(TripStatus.ACCEPTED, BookingTransition.START, TripStatus.IN_PROGRESS);
+        allow(TripStatus.ACCEPTED, BookingTransition.CANCEL, TripStatus.CANCELLED);
+        allow(TripStatus.IN_PROGRESS, BookingTransition.COMPLETE, TripStatus.COMPLETED);
+        allow(TripStatus.PENDING, BookingTransition.EXPIRE, TripStatus.EXPIRED);
+
+        onTransition(BookingTransition.ACCEPT, booking -> driverLocationRegistry.markBusy(booking.getDriverId()));
+        onTransition(BookingTransition.ACCEPT, booking -> eventPublisher.publishEvent(PendingBookingEvent.accepted(booking)));
+        onTransition(BookingTransition.CANCEL, booking -> eventPublisher.publishEvent(PendingBookingEvent.cancelled(booking)));
+        // Cancelling an accepted booking frees its driver
+        onTransition(BookingTransition.CANCEL, booking -> {
+            if (booking.getDriverId() != null) {
+                driverLocationRegistry.markAvailable(booking.getDriverId());
+            }
+        });
+        onTransition(BookingTransition.EXPIRE, booking -> eventPublisher.publishEvent(PendingBookingEvent.cancelled(booking)));
+        onTransition(BookingTransition.COMPLETE, booking -> driverLocationRegistry.markAvailable(booking.getDriverId()));
+
+        for (BookingTransition transition : BookingTransition.values()) {
+            String name = transition.name().toLowerCase();
+            applied.put(transition, Counter.builder("booking.transitions")
+                    .tag("transition", name).tag("result", "applied").register(meterRegistry));
+            refused.put(transition, Counter.builder("booking.transitions")
+                    .tag("transition", name).tag("result", "refused").register(meterRegistry));
+            timers.put(transition, Timer.builder("booking.transition.latency")
+                    .tag("transition", name).register(meterRegistry));
+        }
+    }
+
+    /**
+     * Register a hook that runs after the transition has been applied
+     */
+    public void onTransition(BookingTransition transition, Consumer<Booking> hook) {
+        hooks.computeIfAbsent(transition, t -> new CopyOnWriteArrayList<>()).add(hook);
+    }
+
+    /**
+     * Whether the table allows the transition from the given status
+     */
+    public boolean canFire(TripStatus status, BookingTransition transition) {
+        return table.getOrDefault(status, Map.of()).containsKey(transition);
+    }
+
+    /**
+     * Driver claims a pending, unassigned booking
+     */
+    public Result accept(int bookingId, int driverId, String driverEmail) {
+        return execute(bookingId, BookingTransition.ACCEPT, () -> bookingRepository.claimPendingBooking(
+                bookingId, driverId, driverEmail, TripStatus.PENDING, targets.get(BookingTransition.ACCEPT)));
+    }
+
+    /**
+     * Fire a transition that has no actor guard (cancel, expire)
+     */
+    public Result fire(int bookingId, BookingTransition transition) {
+        if (DRIVER_GUARDED.contains(transition) || transition == BookingTransition.ACCEPT) {
+            throw new IllegalArgumentException(transition + " needs a driver");
+        }
+        return execute(bookingId, transition, () -> bookingRepository.transitionStatus(
+                bookingId, sources.get(transition), targets.get(transition)));
+    }
+
+    /**
+     * Fire a transition on behalf of the driver assigned to the booking (start, complete)
+     */
+    public Result fire(int bookingId, BookingTransition transition, int driverId) {
+        if (!DRIVER_GUARDED.contains(transition)) {
+            return fire(bookingId, transition);
+        }
+        return execute(bookingId, transition, () -> bookingRepository.transitionStatusForDriver(
+                bookingId, sources.get(transition), targets.get(transition), driverId));
+    }
+
+    /**
+     * Fire an unguarded transition on many bookings with one UPDATE. Returns the
+     * bookings that read back in the target status; hooks run for each of them,
+     * so use this only for transitions whose target no other transition reaches.
+     */
+    public List<Booking> fireAll(Collection<Integer> bookingIds, BookingTransition transition) {
+        if (DRIVER_GUARDED.contains(transition) || transition == BookingTransition.ACCEPT) {
+            throw new IllegalArgumentException(transition + " needs a driver");
+        }
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        TripStatus target = targets.get(transition);
+        long start = System.nanoTime();
+        int updated = bookingRepository.transitionStatusIn(bookingIds, sources.get(transition), target);
+        timers.get(transition).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        applied.get(transition).increment(updated);
+        refused.get(transition).increment(bookingIds.size() - updated);
+        if (updated == 0) {
+            return List.of();
+        }
+
+        List<Booking> moved = new ArrayList<>(updated);
+        for (Booking booking : bookingRepository.findAllById(bookingIds)) {
+            if (booking.getTripStatus() == target) {
+                moved.add(booking);
+                runHooks(transition, booking);
+            }
+        }
+        return moved;
+    }
+
+    private Result execute(int bookingId, BookingTransition transition, UpdateStatement update) {
+        long start = System.nanoTime();
+        int updated = update.execute();
+        timers.get(transition).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // The row is read once either way: the new state on success, the reason on refusal
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (updated == 0) {
+            refused.get(transition).increment();
+            return new Result(false, booking);
+        }
+
+        applied.get(transition).increment();
+        runHooks(transition, booking);
+        return new Result(true, booking);
+    }
+
+    private void runHooks(BookingTransition transition, Booking booking) {
+        for (Consumer<Booking> hook : hooks.getOrDefault(transition, List.of())) {
+            try {
+                hook.accept(booking);
+            } catch (RuntimeException e) {
+                log.error("Hook for {} on booking {} failed: {}", transition, booking.getBookingId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void allow(TripStatus from, BookingTransition transition, TripStatus to) {
+        table.computeIfAbsent(from, s -> new EnumMap<>(BookingTransition.class)).put(transition, to);
+        sources.computeIfAbsent(transition, t -> EnumSet.noneOf(TripStatus.class)).add(from);
+        TripStatus previous = targets.putIfAbsent(transition, to);
+        if (previous != null && previous != to) {
+            throw new IllegalStateException(transition + " must have a single target status");
+        }
+    }
+
+    @FunctionalInterface
+    private interface UpdateStatement {
+        int execute();
+    }
+
+    /**
+     * Outcome of a transition; booking is the current row (null if it does not exist)
+     */
+    public record Result(boolean applied, Booking booking) {
+    }
+}
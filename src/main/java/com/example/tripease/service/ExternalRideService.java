@@ -1,13 +1,18 @@
 package com.example.tripease.service;
 
+import com.example.tripease.Enum.BookingTransition;
 import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.config.ExecutionConfig;
+import com.example.tripease.dispatch.PendingBookingEvent;
 import com.example.tripease.dto.request.ExternalBookingRequest;
 import com.example.tripease.dto.response.ExternalBookingResponse;
 import com.example.tripease.model.Booking;
 import com.example.tripease.repository.BookingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -17,6 +22,7 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 /**
  * Service for handling external booking requests from other systems (e.g.,
@@ -29,6 +35,12 @@ public class ExternalRideService {
 
     private final BookingRepository bookingRepository;
     private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingStateMachine bookingStateMachine;
+
+    // Qualifier is copied onto the constructor parameter (see lombok.config)
+    @Qualifier(ExecutionConfig.OUTBOUND_EXECUTOR)
+    private final Executor outboundExecutor;
 
     @Value("${integration.api.key}")
     private String apiKey;
@@ -65,6 +77,7 @@ public class ExternalRideService {
                     .build();
 
             Booking savedBooking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(PendingBookingEvent.created(savedBooking));
             log.info("External booking created with TripEase ID: {}", savedBooking.getBookingId());
 
             return ExternalBookingResponse.builder()
@@ -130,9 +143,10 @@ public class ExternalRideService {
      * Cancel an external booking
      */
     public ExternalBookingResponse cancelExternalBooking(int bookingId) {
-        Optional<Booking> optionalBooking = bookingRepository.findById(bookingId);
+        BookingStateMachine.Result result = bookingStateMachine.fire(bookingId, BookingTransition.CANCEL);
+        Booking booking = result.booking();
 
-        if (optionalBooking.isEmpty()) {
+        if (booking == null) {
             return ExternalBookingResponse.builder()
                     .tripEaseBookingId(bookingId)
                     .message("Booking not found")
@@ -140,10 +154,7 @@ public class ExternalRideService {
                     .build();
         }
 
-        Booking booking = optionalBooking.get();
-
-        if (booking.getTripStatus() == TripStatus.IN_PROGRESS ||
-                booking.getTripStatus() == TripStatus.COMPLETED) {
+        if (!result.applied()) {
             return ExternalBookingResponse.builder()
                     .tripEaseBookingId(bookingId)
                     .status(booking.getTripStatus())
@@ -152,9 +163,6 @@ public class ExternalRideService {
                     .build();
         }
 
-        booking.setTripStatus(TripStatus.CANCELLED);
-        bookingRepository.save(booking);
-
         log.info("External booking {} cancelled", bookingId);
 
         return ExternalBookingResponse.builder()
@@ -168,7 +176,9 @@ public class ExternalRideService {
     }
 
     /**
-     * Notify external system of booking status change (webhook)
+     * Notify external system of booking status change (webhook). The payload
+     * is captured now and posted on the outbound executor, so the caller does
+     * not wait on the partner's endpoint.
      */
     public void notifyExternalSystem(Booking booking, String callbackUrl) {
         if (callbackUrl == null || callbackUrl.isEmpty()) {
@@ -176,24 +186,26 @@ public class ExternalRideService {
             return;
         }
 
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("X-API-Key", apiKey);
-
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("tripEaseBookingId", booking.getBookingId());
-            payload.put("externalBookingId", booking.getExternalBookingId());
-            payload.put("status", booking.getTripStatus().name());
-            payload.put("driverEmail", booking.getDriverEmail());
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-            restTemplate.postForEntity(callbackUrl, request, String.class);
-
-            log.info("Notified external system at {} for booking {}", callbackUrl, booking.getBookingId());
-        } catch (Exception e) {
-            log.error("Failed to notify external system: {}", e.getMessage());
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-API-Key", apiKey);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("tripEaseBookingId", booking.getBookingId());
+        payload.put("externalBookingId", booking.getExternalBookingId());
+        payload.put("status", booking.getTripStatus().name());
+        payload.put("driverEmail", booking.getDriverEmail());
+
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
+        int bookingId = booking.getBookingId();
+        outboundExecutor.execute(() -> {
+            try {
+                restTemplate.postForEntity(callbackUrl, request, String.class);
+                log.info("Notified external system at {} for booking {}", callbackUrl, bookingId);
+            } catch (Exception e) {
+                log.error("Failed to notify external system: {}", e.getMessage());
+            }
+        });
     }
 
     private ExternalBookingResponse mapToResponse(Booking booking) {
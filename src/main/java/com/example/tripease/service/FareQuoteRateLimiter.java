@@ -0,0 +1,73 @@
+package com.example.tripease.service;
+
+import com.example.tripease.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token bucket for fare estimates that come with a quote.
+ * {@code /fare/**} is open to anonymous callers, so without a limit one
+ * client could mint quotes (and route lookups) as fast as it can send
+ * requests. Each client may take {@code fare.quote.rate.burst} estimates at
+ * once and then {@code fare.quote.rate.per-minute}; beyond that the call
+ * fails with {@link TooManyRequestsException} (429).
+ */
+@Component
+public class FareQuoteRateLimiter {
+
+    private final double tokensPerMs;
+    private final int burst;
+    private final LongSupplier clock;
+    private final Cache<String, Bucket> buckets;
+
+    public FareQuoteRateLimiter(@Value("${fare.quote.rate.per-minute:30}") int perMinute,
+            @Value("${fare.quote.rate.burst:10}") int burst) {
+        this(perMinute, burst, System::currentTimeMillis);
+    }
+
+    FareQuoteRateLimiter(int perMinute, int burst, LongSupplier clock) {
+        this.tokensPerMs = perMinute / 60_000.0;
+        this.burst = Math.max(1, burst);
+        this.clock = clock;
+        // A bucket idle long enough to refill completely is the same as a new one
+        long refillMs = (long) Math.ceil(this.burst / Math.max(tokensPerMs, 1e-9));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMillis(Math.min(refillMs, Duration.ofHours(1).toMillis())))
+                .build();
+    }
+
+    /**
+     * Take one estimate from the client's bucket, or throw if it is empty
+     */
+    public void acquire(String client) {
+        if (!buckets.get(client, key -> new Bucket(burst, clock.getAsLong())).tryTake(clock.getAsLong())) {
+            throw new TooManyRequestsException("Too many fare estimates right now. Please try again shortly.");
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryTake(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerMs);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.RideType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived fare quotes issued with fare estimates, so booking creation
+ * can take distance and price from the server instead of the client without
+ * routing the trip again. A quote id is self-contained:
+ * {@code base64url(expiry + random + trip + prices) "." base64url(HMAC)}, so
+ * issuing one stores nothing and forged or altered ids are rejected by the
+ * signature alone. Only redeemed ids are remembered, until they expire,
+ * which keeps quotes single-use. The redeemed ids live in memory, so with
+ * several instances a quote could be used once per instance until a shared
+ * store is introduced.
+ */
+@Component
+public class FareQuoteStore {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 12;
+    private static final int RIDE_TYPES = RideType.values().length;
+    // expiry, nonce, four coordinates, distance, duration, one total per ride type
+    private static final int PAYLOAD_BYTES = Long.BYTES + NONCE_BYTES + 5 * Double.BYTES + Integer.BYTES
+            + RIDE_TYPES * Integer.BYTES;
+    private static final int SIGNATURE_BYTES = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Initialised once and cloned per signature, since Mac instances are not thread-safe
+    private final Mac macPrototype;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+    // Redeemed ids only; one entry per booking made in the last TTL, so no size bound is needed
+    private final Cache<String, Boolean> redeemed;
+
+    public FareQuoteStore(MeterRegistry meterRegistry,
+            @Value("${fare.quote.secret:${jwt.secret}}") String secret,
+            @Value("${fare.quote.ttl-ms:600000}") long ttlMs) {
+        this(secret, ttlMs, System::currentTimeMillis);
+        CaffeineCacheMetrics.monitor(meterRegistry, redeemed, "fare-quote-redeemed");
+    }
+
+    FareQuoteStore(String secret, long ttlMs, LongSupplier clock) {
+        try {
+            this.macPrototype = Mac.getInstance(HMAC_ALGORITHM);
+            macPrototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialise fare quote signing", e);
+        }
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.redeemed = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Sign a quote into its id
+     */
+    public String issue(Quote quote) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(clock.getAsLong() + ttlMs)
+                .put(nonce)
+                .putDouble(quote.pickupLat())
+                .putDouble(quote.pickupLng())
+                .putDouble(quote.destinationLat())
+                .putDouble(quote.destinationLng())
+                .putDouble(quote.distanceKm())
+                .putInt(quote.durationMin());
+        for (int i = 0; i < RIDE_TYPES; i++) {
+            payload.putInt(quote.totalFares()[i]);
+        }
+        return ENCODER.encodeToString(payload.array()) + "." + ENCODER.encodeToString(sign(payload.array()));
+    }
+
+    /**
+     * The quote behind an id, marking the id as used. Empty when the id is
+     * malformed, forged, expired or already used.
+     */
+    public Optional<Quote> redeem(String quoteId) {
+        if (quoteId == null) {
+            return Optional.empty();
+        }
+        Optional<Quote> quote = verify(quoteId);
+        if (quote.isEmpty() || redeemed.asMap().putIfAbsent(quoteId, Boolean.TRUE) != null) {
+            return Optional.empty();
+        }
+        return quote;
+    }
+
+    /**
+     * Make a redeemed quote usable again when its booking could not be saved,
+     * so the customer can retry with the same id (until it expires)
+     */
+    public void restore(String quoteId) {
+        redeemed.invalidate(quoteId);
+    }
+
+    /**
+     * Number of redeemed ids still remembered
+     */
+    public long redeemedCount() {
+        return redeemed.estimatedSize();
+    }
+
+    private Optional<Quote> verify(String quoteId) {
+        int dot = quoteId.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(quoteId.substring(0, dot));
+            signature = DECODER.decode(quoteId.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(sign(payload), signature)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.getLong() <= clock.getAsLong()) {
+            return Optional.empty();
+        }
+        buffer.position(buffer.position() + NONCE_BYTES);
+        double pickupLat = buffer.getDouble();
+        double pickupLng = buffer.getDouble();
+        double destinationLat = buffer.getDouble();
+        double destinationLng = buffer.getDouble();
+        double distanceKm = buffer.getDouble();
+        int durationMin = buffer.getInt();
+        int[] totalFares = new int[RIDE_TYPES];
+        for (int i = 0; i < RIDE_TYPES; i++) {
+            totalFares[i] = buffer.getInt();
+        }
+        return Optional.of(new Quote(pickupLat, pickupLng, destinationLat, destinationLng, distanceKm, durationMin,
+                totalFares));
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = (Mac) macPrototype.clone();
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_BYTES);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Could not sign fare quote", e);
+        }
+    }
+
+    /**
+     * Trip and prices as quoted; {@code totalFares} is indexed by RideType ordinal
+     */
+    public record Quote(double pickupLat, double pickupLng, double destinationLat, double destinationLng,
+            double distanceKm, int durationMin, int[] totalFares) {
+
+        public int fare(RideType rideType) {
+            return totalFares[rideType.ordinal()];
+        }
+    }
+}
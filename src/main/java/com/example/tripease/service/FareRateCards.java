@@ -0,0 +1,156 @@
+package com.example.tripease.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The fare rate card in effect. Rates come from {@code fare.rates.file} (see
+ * {@link FareTable#fromProperties} for the format), or the built-in defaults
+ * when no file is configured. Each load is compiled into an immutable
+ * {@link FareTable} and published with a single volatile write, so the fare
+ * path reads the current card without locking. A watcher thread reloads the
+ * file when it changes; a card that fails to parse is logged and ignored,
+ * keeping the previous one.
+ */
+@Slf4j
+@Component
+public class FareRateCards {
+
+    // Lets an editor or deploy tool finish writing before the file is read
+    private static final long SETTLE_MS = 200;
+
+    private final Path file;
+    private final Counter applied;
+    private final Counter rejected;
+
+    private volatile FareTable current;
+    private FileTime loadedModified;
+    private long loadedSize = -1;
+    private WatchService watchService;
+
+    public FareRateCards(MeterRegistry meterRegistry, @Value("${fare.rates.file:}") String file) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file).toAbsolutePath();
+        this.current = FareTable.defaults();
+        this.applied = Counter.builder("fare.rates.reloads").tag("result", "applied").register(meterRegistry);
+        this.rejected = Counter.builder("fare.rates.reloads").tag("result", "rejected").register(meterRegistry);
+    }
+
+    private FareRateCards(FareTable table) {
+        this.file = null;
+        this.current = table;
+        this.applied = null;
+        this.rejected = null;
+    }
+
+    /**
+     * A fixed card that never reloads (tests and benchmarks)
+     */
+    public static FareRateCards of(FareTable table) {
+        return new FareRateCards(table);
+    }
+
+    public FareTable current() {
+        return current;
+    }
+
+    /**
+     * Load the configured file and start watching its directory. A configured
+     * file that cannot be loaded at startup fails startup rather than pricing
+     * with the defaults.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (file == null) {
+            log.info("No fare.rates.file configured, using built-in fare rates");
+            return;
+        }
+        if (!reloadIfChanged()) {
+            throw new IllegalStateException("Could not load fare rate card " + file);
+        }
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread watcher = new Thread(this::watch, "fare-rates-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Re-read the file if its timestamp or size changed since the last load.
+     * Returns false only when a changed file could not be applied.
+     */
+    synchronized boolean reloadIfChanged() {
+        FileTime modified;
+        long size;
+        try {
+            modified = Files.getLastModifiedTime(file);
+            size = Files.size(file);
+        } catch (IOException e) {
+            log.warn("Fare rate card {} is not readable, keeping current rates: {}", file, e.getMessage());
+            return false;
+        }
+        if (Objects.equals(modified, loadedModified) && size == loadedSize) {
+            return true;
+        }
+        // Remember this version even if it is rejected, so a broken file is reported once
+        loadedModified = modified;
+        loadedSize = size;
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+            current = FareTable.fromProperties(properties);
+        } catch (IOException | IllegalArgumentException e) {
+            rejected.increment();
+            log.error("Rejected fare rate card {}, keeping current rates: {}", file, e.getMessage());
+            return false;
+        }
+        applied.increment();
+        log.info("Fare rate card loaded from {}", file);
+        return true;
+    }
+
+    // Any create/modify in the directory triggers a check: editors and config maps replace files by rename
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                Thread.sleep(SETTLE_MS);
+                reloadIfChanged();
+                if (!key.reset()) {
+                    log.warn("Fare rate card directory {} is no longer watchable", file.getParent());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+}
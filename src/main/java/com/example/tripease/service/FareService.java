@@ -1,199 +1,253 @@
 package com.example.tripease.service;
 
 import com.example.tripease.Enum.RideType;
+import com.example.tripease.dispatch.GeoMath;
 import com.example.tripease.dto.request.FareCalculationRequest;
 import com.example.tripease.dto.response.FareCalculationResponse;
 import com.example.tripease.dto.response.FareEstimate;
-import lombok.RequiredArgsConstructor;
+import com.example.tripease.exception.BadRequestException;
+import com.example.tripease.routing.RouteCache;
+import com.example.tripease.routing.RouteDistance;
+import com.example.tripease.routing.RoutingEngine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Service
-@RequiredArgsConstructor
 public class FareService {
 
-    // Fare rates for each ride type (INR)
-    private static final Map<RideType, FareRates> RIDE_RATES = Map.of(
-            RideType.AUTO, new FareRates(25, 12, 1, 30),
-            RideType.BIKE, new FareRates(15, 8, 0.5, 20),
-            RideType.CAR, new FareRates(50, 15, 2, 80),
-            RideType.PREMIUM, new FareRates(100, 25, 3, 150));
-
-    private static final Map<RideType, String> RIDE_ICONS = Map.of(
-            RideType.AUTO, "🛺",
-            RideType.BIKE, "🏍️",
-            RideType.CAR, "🚗",
-            RideType.PREMIUM, "🚙");
-
-    private static final Map<RideType, String> RIDE_NAMES = Map.of(
-            RideType.AUTO, "Auto",
-            RideType.BIKE, "Bike",
-            RideType.CAR, "Car",
-            RideType.PREMIUM, "Premium");
+    private final RouteCache routeCache;
+    private final RoutingEngine routingEngine;
+    private final FareQuoteStore fareQuoteStore;
+    private final FareRateCards fareRateCards;
+    private final int batchMaxPairs;
+    private final int batchParallelism;
+
+    public FareService(RouteCache routeCache, RoutingEngine routingEngine, FareQuoteStore fareQuoteStore,
+            FareRateCards fareRateCards,
+            @Value("${fare.batch.max-pairs:1000}") int batchMaxPairs,
+            @Value("${fare.batch.parallelism:8}") int batchParallelism) {
+        this.routeCache = routeCache;
+        this.routingEngine = routingEngine;
+        this.fareQuoteStore = fareQuoteStore;
+        this.fareRateCards = fareRateCards;
+        this.batchMaxPairs = batchMaxPairs;
+        this.batchParallelism = Math.max(1, batchParallelism);
+    }
+
+    private static final RideType[] RIDE_TYPES = RideType.values();
+
+    // Display name and icon, indexed by RideType ordinal: AUTO, BIKE, CAR, PREMIUM
+    private static final String[] RIDE_NAMES = {"Auto", "Bike", "Car", "Premium"};
+    private static final String[] RIDE_ICONS = {"🛺", "🏍️", "🚗", "🚙"};
 
     public FareCalculationResponse calculateFare(FareCalculationRequest request) {
-        // Calculate distance using OSRM (OpenStreetMap Routing)
-        DistanceResult distanceResult = getDistanceFromOSRM(
-                request.getPickupLat(), request.getPickupLng(),
-                request.getDestinationLat(), request.getDestinationLng());
+        return calculateFareAsync(request).join();
+    }
+
+    /**
+     * Fare estimates without holding a request thread while the route is looked up;
+     * the response carries a quote id for booking the trip
+     */
+    public CompletableFuture<FareCalculationResponse> calculateFareAsync(FareCalculationRequest request) {
+        return route(TripKey.of(request)).thenApply(distanceResult -> toResponse(request, distanceResult, true));
+    }
+
+    /**
+     * Fare estimates for many pairs at once. Pairs with the same coordinates are routed once,
+     * at most {@code fare.batch.parallelism} route lookups are in flight, and
+     * each result is handed to {@code onResult} with the request positions it
+     * answers as soon as it is ready (possibly from several threads at once);
+     * pairs that differ only in their addresses get a result each. Batch
+     * estimates are for comparison only and carry no quote id.
+     * Completes when every pair is delivered,
+     * or exceptionally if {@code onResult} throws (e.g. the client went away).
+     */
+    public CompletableFuture<Void> calculateFareBatch(List<FareCalculationRequest> requests,
+            BiConsumer<List<Integer>, FareCalculationResponse> onResult) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one fare pair is required");
+        }
+        if (requests.size() > batchMaxPairs) {
+            throw new BadRequestException("At most " + batchMaxPairs + " fare pairs are allowed per batch");
+        }
+
+        Map<TripKey, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            FareCalculationRequest request = requests.get(i);
+            if (request == null) {
+                throw new BadRequestException("Fare pair " + i + " is missing");
+            }
+            positions.computeIfAbsent(TripKey.of(request), k -> new ArrayList<>()).add(i);
+        }
+
+        BatchRun run = new BatchRun(requests, new ArrayList<>(positions.entrySet()), onResult);
+        int workers = Math.min(batchParallelism, positions.size());
+        for (int w = 0; w < workers; w++) {
+            run.next();
+        }
+        return run.done;
+    }
 
+    private FareCalculationResponse toResponse(FareCalculationRequest request, RouteDistance distanceResult,
+            boolean quote) {
         if (distanceResult == null) {
             return FareCalculationResponse.builder()
                     .message("Could not calculate distance. Please try again.")
                     .build();
         }
 
-        // Calculate fare for all ride types
-        List<FareEstimate> fareEstimates = new ArrayList<>();
-        for (RideType rideType : RideType.values()) {
-            FareEstimate estimate = calculateFareForRideType(rideType, distanceResult);
-            fareEstimates.add(estimate);
+        // Price all ride types in one pass, then wrap each in its response object
+        int[] fares = new int[FareTable.bufferSize()];
+        fareRateCards.current().compute(distanceResult.distanceKm(), distanceResult.durationMin(), fares);
+        List<FareEstimate> fareEstimates = new ArrayList<>(RIDE_TYPES.length);
+        int[] totalFares = new int[RIDE_TYPES.length];
+        for (RideType rideType : RIDE_TYPES) {
+            fareEstimates.add(toFareEstimate(rideType, fares, distanceResult));
+            totalFares[rideType.ordinal()] = fares[rideType.ordinal() * FareTable.STRIDE + FareTable.TOTAL];
         }
 
+        // Booking creation takes distance and price from this quote rather than from the client
+        String quoteId = quote
+                ? fareQuoteStore.issue(new FareQuoteStore.Quote(
+                        request.getPickupLat(), request.getPickupLng(),
+                        request.getDestinationLat(), request.getDestinationLng(),
+                        distanceResult.distanceKm(), distanceResult.durationMin(), totalFares))
+                : null;
+
         return FareCalculationResponse.builder()
                 .pickupAddress(request.getPickupAddress())
                 .destinationAddress(request.getDestinationAddress())
-                .distanceKm(distanceResult.distanceKm)
-                .distanceText(distanceResult.distanceText)
-                .durationMin(distanceResult.durationMin)
-                .durationText(distanceResult.durationText)
+                .distanceKm(distanceResult.distanceKm())
+                .distanceText(distanceResult.distanceText())
+                .durationMin(distanceResult.durationMin())
+                .durationText(distanceResult.durationText())
                 .fareEstimates(fareEstimates)
+                .quoteId(quoteId)
                 .message("Success")
                 .build();
     }
 
-    private FareEstimate calculateFareForRideType(RideType rideType, DistanceResult distanceResult) {
-        FareRates rates = RIDE_RATES.get(rideType);
-
-        int distanceFare = (int) (distanceResult.distanceKm * rates.perKm);
-        int timeFare = (int) (distanceResult.durationMin * rates.perMin);
-        int totalFare = rates.baseRate + distanceFare + timeFare;
-        int finalFare = Math.max(totalFare, rates.minFare);
-
-        return FareEstimate.builder()
-                .rideType(rideType)
-                .rideName(RIDE_NAMES.get(rideType))
-                .rideIcon(RIDE_ICONS.get(rideType))
-                .baseFare(rates.baseRate)
-                .distanceFare(distanceFare)
-                .timeFare(timeFare)
-                .totalFare(finalFare)
-                .distanceKm(distanceResult.distanceKm)
-                .distanceText(distanceResult.distanceText)
-                .durationMin(distanceResult.durationMin)
-                .durationText(distanceResult.durationText)
-                .build();
+    private FareEstimate toFareEstimate(RideType rideType, int[] fares, RouteDistance distanceResult) {
+        int slot = rideType.ordinal() * FareTable.STRIDE;
+        return new FareEstimate(rideType,
+                RIDE_NAMES[rideType.ordinal()],
+                RIDE_ICONS[rideType.ordinal()],
+                fares[slot + FareTable.BASE],
+                fares[slot + FareTable.DISTANCE],
+                fares[slot + FareTable.TIME],
+                fares[slot + FareTable.TOTAL],
+                distanceResult.distanceKm(),
+                distanceResult.distanceText(),
+                distanceResult.durationMin(),
+                distanceResult.durationText());
+    }
+
+    // Calculate distance with the configured routing engine, cached per snapped origin/destination
+    private CompletableFuture<RouteDistance> route(TripKey trip) {
+        return routeCache.getAsync(trip.pickupLat(), trip.pickupLng(), trip.destinationLat(), trip.destinationLng(),
+                () -> getRouteDistance(trip.pickupLat(), trip.pickupLng(),
+                        trip.destinationLat(), trip.destinationLng()));
     }
 
     /**
-     * Get distance and duration using OSRM (OpenStreetMap Routing Machine)
-     * Free, no API key required!
+     * Get distance and duration from the routing engine (OSRM or the embedded graph).
+     * Any failure, timeout or open circuit falls back to Haversine at once.
      */
-    private DistanceResult getDistanceFromOSRM(double originLat, double originLng,
+    private CompletableFuture<RouteDistance> getRouteDistance(double originLat, double originLng,
             double destLat, double destLng) {
-        try {
-            // OSRM Demo server (for development - use your own server in production)
-            String url = String.format(
-                    "https://router.project-osrm.org/route/v1/driving/%f,%f;%f,%f?overview=false",
-                    originLng, originLat, destLng, destLat // Note: OSRM uses lng,lat order
-            );
-
-            RestTemplate restTemplate = new RestTemplate();
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && "Ok".equals(response.get("code"))) {
-                List<Map<String, Object>> routes = (List<Map<String, Object>>) response.get("routes");
-                if (routes != null && !routes.isEmpty()) {
-                    Map<String, Object> route = routes.get(0);
-
-                    // Distance in meters, duration in seconds
-                    double distanceMeters = ((Number) route.get("distance")).doubleValue();
-                    double durationSeconds = ((Number) route.get("duration")).doubleValue();
-
-                    double distanceKm = Math.round(distanceMeters / 100.0) / 10.0; // Round to 1 decimal
-                    int durationMin = (int) Math.round(durationSeconds / 60.0);
-
-                    return new DistanceResult(
-                            distanceKm,
-                            String.format("%.1f km", distanceKm),
-                            durationMin,
-                            formatDuration(durationMin));
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("OSRM API error: " + e.getMessage());
-            // Fall back to Haversine calculation
-            return calculateHaversineDistance(originLat, originLng, destLat, destLng);
-        }
-
-        // Fallback to Haversine
-        return calculateHaversineDistance(originLat, originLng, destLat, destLng);
-    }
-
-    private String formatDuration(int minutes) {
-        if (minutes < 60) {
-            return minutes + " mins";
-        }
-        int hours = minutes / 60;
-        int mins = minutes % 60;
-        return hours + " hr " + mins + " mins";
+        return routingEngine.route(originLat, originLng, destLat, destLng)
+                .exceptionally(e -> calculateHaversineDistance(originLat, originLng, destLat, destLng));
     }
 
     /**
      * Fallback: Calculate distance using Haversine formula (straight-line * 1.3)
      */
-    private DistanceResult calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    private RouteDistance calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
+        double straightDistance = GeoMath.haversineKm(lat1, lon1, lat2, lon2);
 
         // Multiply by 1.3 to approximate road distance
-        double straightDistance = R * c;
         double roadDistance = Math.round(straightDistance * 1.3 * 10.0) / 10.0;
         int durationMin = (int) (roadDistance * 3); // Approximate 3 mins per km
 
-        return new DistanceResult(
-                roadDistance,
-                String.format("%.1f km", roadDistance),
-                durationMin,
-                formatDuration(durationMin));
+        return RouteDistance.of(roadDistance, durationMin, true);
     }
 
     // Inner classes
-    private static class FareRates {
-        final int baseRate;
-        final double perKm;
-        final double perMin;
-        final int minFare;
-
-        FareRates(int baseRate, double perKm, double perMin, int minFare) {
-            this.baseRate = baseRate;
-            this.perKm = perKm;
-            this.perMin = perMin;
-            this.minFare = minFare;
+
+    /**
+     * Coordinates of a fare pair; batch pairs are deduplicated on these alone,
+     * since the addresses are only echoed back and do not affect the route
+     */
+    private record TripKey(double pickupLat, double pickupLng, double destinationLat, double destinationLng) {
+
+        static TripKey of(FareCalculationRequest request) {
+            return new TripKey(request.getPickupLat(), request.getPickupLng(),
+                    request.getDestinationLat(), request.getDestinationLng());
         }
     }
 
-    private static class DistanceResult {
-        final double distanceKm;
-        final String distanceText;
-        final int durationMin;
-        final String durationText;
-
-        DistanceResult(double distanceKm, String distanceText, int durationMin, String durationText) {
-            this.distanceKm = distanceKm;
-            this.distanceText = distanceText;
-            this.durationMin = durationMin;
-            this.durationText = durationText;
+    /**
+     * One batch in progress. Every worker keeps a single lookup in flight and
+     * takes the next pair when it finishes; cache hits complete inline, so the
+     * worker loops instead of recursing.
+     */
+    private final class BatchRun {
+        private final List<FareCalculationRequest> requests;
+        private final List<Map.Entry<TripKey, List<Integer>>> pairs;
+        private final BiConsumer<List<Integer>, FareCalculationResponse> onResult;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        BatchRun(List<FareCalculationRequest> requests, List<Map.Entry<TripKey, List<Integer>>> pairs,
+                BiConsumer<List<Integer>, FareCalculationResponse> onResult) {
+            this.requests = requests;
+            this.pairs = pairs;
+            this.onResult = onResult;
+            this.remaining = new AtomicInteger(pairs.size());
+        }
+
+        void next() {
+            int i;
+            while (!done.isDone() && (i = cursor.getAndIncrement()) < pairs.size()) {
+                Map.Entry<TripKey, List<Integer>> pair = pairs.get(i);
+                CompletableFuture<Void> lookup = route(pair.getKey())
+                        .exceptionally(e -> null)
+                        .thenAccept(distanceResult -> deliver(pair.getValue(), distanceResult));
+                if (!lookup.isDone()) {
+                    lookup.whenComplete((ignored, e) -> next());
+                    return;
+                }
+            }
+        }
+
+        // One route, priced once per distinct address pair among the positions it answers
+        private void deliver(List<Integer> indexes, RouteDistance distanceResult) {
+            if (done.isDone()) {
+                return;
+            }
+            Map<FareCalculationRequest, List<Integer>> byRequest = new LinkedHashMap<>();
+            for (int index : indexes) {
+                byRequest.computeIfAbsent(requests.get(index), r -> new ArrayList<>()).add(index);
+            }
+            try {
+                byRequest.forEach((request, positions) ->
+                        onResult.accept(positions, toResponse(request, distanceResult, false)));
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+                return;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
         }
     }
 }
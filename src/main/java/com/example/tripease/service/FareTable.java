@@ -0,0 +1,120 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.RideType;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Fare rates for every ride type as primitive arrays indexed by
+ * {@link RideType#ordinal()}. {@link #compute} prices all ride types in one
+ * pass into a caller-supplied buffer, so the pricing arithmetic allocates
+ * nothing. Instances are immutable.
+ */
+public final class FareTable {
+
+    // Layout of one ride type's slot in the compute() buffer
+    public static final int BASE = 0;
+    public static final int DISTANCE = 1;
+    public static final int TIME = 2;
+    public static final int TOTAL = 3;
+    public static final int STRIDE = 4;
+
+    private static final int RIDE_TYPES = RideType.values().length;
+
+    private final int[] baseRate;
+    private final double[] perKm;
+    private final double[] perMin;
+    private final int[] minFare;
+
+    public FareTable(int[] baseRate, double[] perKm, double[] perMin, int[] minFare) {
+        if (baseRate.length != RIDE_TYPES || perKm.length != RIDE_TYPES || perMin.length != RIDE_TYPES
+                || minFare.length != RIDE_TYPES) {
+            throw new IllegalArgumentException("Fare rates must cover all " + RIDE_TYPES + " ride types");
+        }
+        this.baseRate = baseRate.clone();
+        this.perKm = perKm.clone();
+        this.perMin = perMin.clone();
+        this.minFare = minFare.clone();
+    }
+
+    /**
+     * Standard rates (INR), in RideType order: AUTO, BIKE, CAR, PREMIUM
+     */
+    public static FareTable defaults() {
+        return new FareTable(
+                new int[]{25, 15, 50, 100},
+                new double[]{12, 8, 15, 25},
+                new double[]{1, 0.5, 2, 3},
+                new int[]{30, 20, 80, 150});
+    }
+
+    /**
+     * Rate card from properties, four keys per ride type, e.g.
+     * {@code car.base-rate=50}, {@code car.per-km=15}, {@code car.per-min=2},
+     * {@code car.min-fare=80}. Every ride type must be present; a card with a
+     * missing, malformed or negative value is rejected as a whole.
+     */
+    public static FareTable fromProperties(Properties properties) {
+        int[] baseRate = new int[RIDE_TYPES];
+        double[] perKm = new double[RIDE_TYPES];
+        double[] perMin = new double[RIDE_TYPES];
+        int[] minFare = new int[RIDE_TYPES];
+        for (RideType rideType : RideType.values()) {
+            String prefix = rideType.name().toLowerCase(Locale.ROOT) + ".";
+            int i = rideType.ordinal();
+            baseRate[i] = wholeRate(properties, prefix + "base-rate");
+            perKm[i] = rate(properties, prefix + "per-km");
+            perMin[i] = rate(properties, prefix + "per-min");
+            minFare[i] = wholeRate(properties, prefix + "min-fare");
+        }
+        return new FareTable(baseRate, perKm, perMin, minFare);
+    }
+
+    private static int wholeRate(Properties properties, String key) {
+        double rate = rate(properties, key);
+        if (rate != Math.rint(rate) || rate > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Fare rate " + key + " must be a whole amount: " + rate);
+        }
+        return (int) rate;
+    }
+
+    private static double rate(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing fare rate " + key);
+        }
+        double rate;
+        try {
+            rate = Double.parseDouble(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Fare rate " + key + " is not a number: " + value);
+        }
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Fare rate " + key + " must be zero or positive: " + value);
+        }
+        return rate;
+    }
+
+    /**
+     * Buffer size needed by {@link #compute}
+     */
+    public static int bufferSize() {
+        return RIDE_TYPES * STRIDE;
+    }
+
+    /**
+     * Price every ride type for the trip. The fare parts of ride type {@code t}
+     * are written to {@code out[t.ordinal() * STRIDE + BASE | DISTANCE | TIME | TOTAL]}.
+     */
+    public void compute(double distanceKm, int durationMin, int[] out) {
+        for (int i = 0, slot = 0; i < RIDE_TYPES; i++, slot += STRIDE) {
+            int distanceFare = (int) (distanceKm * perKm[i]);
+            int timeFare = (int) (durationMin * perMin[i]);
+            out[slot + BASE] = baseRate[i];
+            out[slot + DISTANCE] = distanceFare;
+            out[slot + TIME] = timeFare;
+            out[slot + TOTAL] = Math.max(baseRate[i] + distanceFare + timeFare, minFare[i]);
+        }
+    }
+}
@@ -1,130 +1,183 @@
 package com.example.tripease.service;
 
+import com.example.tripease.Enum.BookingTransition;
 import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dispatch.DeclinedDrivers;
+import com.example.tripease.dispatch.DriverDispatcher;
+import com.example.tripease.dispatch.DriverLocationRegistry;
+import com.example.tripease.dispatch.PendingBookingEvent;
+import com.example.tripease.dispatch.PendingBookingIndex;
 import com.example.tripease.dto.request.CreateBookingRequest;
+import com.example.tripease.dto.request.DriverLocationRequest;
 import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.exception.BadRequestException;
 import com.example.tripease.model.Booking;
-import com.example.tripease.model.User;
 import com.example.tripease.repository.BookingRepository;
-import com.example.tripease.repository.UserRepository;
+import com.example.tripease.security.JwtPrincipal;
+import com.example.tripease.transformer.BookingTransformer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RideBookingService {
 
+        private static final double MAX_NEARBY_RADIUS_KM = 50.0;
+
         private final BookingRepository bookingRepository;
-        private final UserRepository userRepository;
+        private final PendingBookingIndex pendingBookingIndex;
+        private final ApplicationEventPublisher eventPublisher;
+        private final DriverLocationRegistry driverLocationRegistry;
+        private final DriverDispatcher driverDispatcher;
+        private final BookingStateMachine bookingStateMachine;
+        private final DeclinedDrivers declinedDrivers;
+        private final FareQuoteStore fareQuoteStore;
 
         /**
          * Create a new booking (called by customer)
          */
         public BookingDetailsResponse createBooking(CreateBookingRequest request) {
-                // Get current user from security context
-                var auth = SecurityContextHolder.getContext().getAuthentication();
-                System.out.println("Auth: " + auth);
-                System.out.println("Auth Name: " + (auth != null ? auth.getName() : "null"));
-                System.out.println("Auth Principal: " + (auth != null ? auth.getPrincipal() : "null"));
-
-                String email = auth != null ? auth.getName() : null;
-                if (email == null || email.equals("anonymousUser")) {
+                // Current user from the token's claims, no users-table lookup
+                Optional<JwtPrincipal> principal = JwtPrincipal.current();
+                if (principal.isEmpty()) {
                         System.err.println("User not authenticated!");
                         return BookingDetailsResponse.builder()
                                         .message("User not authenticated. Please log in again.")
                                         .build();
                 }
+                JwtPrincipal user = principal.get();
+                String email = user.email();
 
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-
-                System.out.println("User found: " + user.getEmail() + ", ReferenceId: " + user.getReferenceId());
+                if (request.getRideType() == null) {
+                        throw new BadRequestException("Ride type is required");
+                }
+                // Trip and price come from the server-issued quote, not from the client
+                FareQuoteStore.Quote quote = fareQuoteStore.redeem(request.getQuoteId())
+                                .orElseThrow(() -> new BadRequestException(
+                                                "Fare quote is invalid or has expired. Please check the fare again."));
 
                 Booking booking = Booking.builder()
-                                .customerId(user.getReferenceId())
+                                .customerId(user.referenceId())
                                 .customerEmail(email)
                                 .pickupAddress(request.getPickupAddress())
-                                .pickupLat(request.getPickupLat())
-                                .pickupLng(request.getPickupLng())
+                                .pickupLat(quote.pickupLat())
+                                .pickupLng(quote.pickupLng())
                                 .destinationAddress(request.getDestinationAddress())
-                                .destinationLat(request.getDestinationLat())
-                                .destinationLng(request.getDestinationLng())
-                                .tripDistanceInKm(request.getTripDistanceInKm())
-                                .estimatedTimeMin(request.getEstimatedTimeMin())
-                                .billAmount(request.getBillAmount())
+                                .destinationLat(quote.destinationLat())
+                                .destinationLng(quote.destinationLng())
+                                .tripDistanceInKm(quote.distanceKm())
+                                .estimatedTimeMin(quote.durationMin())
+                                .billAmount(quote.fare(request.getRideType()))
                                 .rideType(request.getRideType())
                                 .tripStatus(TripStatus.PENDING)
                                 .build();
 
-                Booking savedBooking = bookingRepository.save(booking);
+                // The quote is redeemed first so two concurrent requests cannot both use it;
+                // it is released again if the booking is not saved
+                Booking savedBooking;
+                try {
+                        savedBooking = bookingRepository.save(booking);
+                } catch (RuntimeException e) {
+                        fareQuoteStore.restore(request.getQuoteId());
+                        throw e;
+                }
+                eventPublisher.publishEvent(PendingBookingEvent.created(savedBooking));
                 return mapToResponse(savedBooking, "Booking created successfully. Waiting for driver.");
         }
 
         /**
-         * Get all pending bookings (for drivers to see)
+         * Get all pending bookings (for drivers to see), served from the in-memory index.
+         * Bookings the driver already declined are left out.
          */
-        public List<BookingDetailsResponse> getPendingBookings() {
-                List<Booking> pendingBookings = bookingRepository
-                                .findByTripStatusAndDriverIdIsNullOrderByBookedAtDesc(TripStatus.PENDING);
+        public List<BookingDetailsResponse> getPendingBookings(Integer driverId) {
+                return declinedDrivers.visibleTo(driverId, pendingBookingIndex.snapshot());
+        }
 
-                return pendingBookings.stream()
-                                .map(b -> mapToResponse(b, null))
-                                .collect(Collectors.toList());
+        /**
+         * Get pending bookings with pickup within radiusKm of the driver's location
+         */
+        public List<BookingDetailsResponse> getNearbyPendingBookings(double lat, double lng, double radiusKm,
+                        Integer driverId) {
+                if (lat < -90 || lat > 90) {
+                        throw new BadRequestException("lat must be between -90 and 90");
+                }
+                if (lng < -180 || lng > 180) {
+                        throw new BadRequestException("lng must be between -180 and 180");
+                }
+                if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+                        throw new BadRequestException("radiusKm must be between 0 and " + MAX_NEARBY_RADIUS_KM);
+                }
+                return declinedDrivers.visibleTo(driverId, pendingBookingIndex.nearby(lat, lng, radiusKm));
         }
 
         /**
-         * Driver accepts a booking
+         * Driver location ping (high rate, kept in memory only)
          */
-        public BookingDetailsResponse acceptBooking(int bookingId) {
-                String email = SecurityContextHolder.getContext().getAuthentication().getName();
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+        public void updateDriverLocation(int driverId, DriverLocationRequest request) {
+                driverLocationRegistry.update(driverId, request.getLat(), request.getLng(), request.isAvailable());
+        }
 
-                Booking booking = bookingRepository.findById(bookingId)
-                                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        /**
+         * Pending bookings offered to this driver as one of the nearest candidates
+         */
+        public List<BookingDetailsResponse> getDriverOffers(int driverId) {
+                return driverDispatcher.offersFor(driverId);
+        }
 
-                if (booking.getTripStatus() != TripStatus.PENDING) {
+        /**
+         * Driver accepts a booking. The claim is a single conditional UPDATE, so when
+         * two drivers race for the same booking exactly one of them wins.
+         */
+        public BookingDetailsResponse acceptBooking(int bookingId) {
+                JwtPrincipal user = JwtPrincipal.require();
+
+                BookingStateMachine.Result result = bookingStateMachine.accept(bookingId, user.referenceId(),
+                                user.email());
+                Booking booking = existing(result);
+
+                if (!result.applied()) {
+                        pendingBookingIndex.remove(bookingId);
+                        if (user.referenceId().equals(booking.getDriverId())) {
+                                return mapToResponse(booking, "Booking already accepted by you");
+                        }
+                        if (booking.getDriverId() != null) {
+                                return BookingDetailsResponse.builder()
+                                                .message("Booking already accepted by another driver")
+                                                .build();
+                        }
                         return BookingDetailsResponse.builder()
                                         .message("Booking is no longer available")
                                         .build();
                 }
 
-                if (booking.getDriverId() != null) {
-                        return BookingDetailsResponse.builder()
-                                        .message("Booking already accepted by another driver")
-                                        .build();
-                }
-
-                booking.setDriverId(user.getReferenceId());
-                booking.setDriverEmail(email);
-                booking.setTripStatus(TripStatus.ACCEPTED);
-
-                Booking savedBooking = bookingRepository.save(booking);
-                return mapToResponse(savedBooking, "Booking accepted successfully!");
+                return mapToResponse(booking, "Booking accepted successfully!");
         }
 
         /**
-         * Driver rejects a booking (just marks as rejected, customer can rebook)
+         * Driver rejects a booking. Only this driver is taken out of the running:
+         * the booking stays pending and is offered to the next-best drivers.
          */
         public BookingDetailsResponse rejectBooking(int bookingId) {
-                Booking booking = bookingRepository.findById(bookingId)
-                                .orElseThrow(() -> new RuntimeException("Booking not found"));
+                JwtPrincipal user = JwtPrincipal.require();
 
-                if (booking.getTripStatus() != TripStatus.PENDING) {
+                Optional<BookingDetailsResponse> pending = pendingBookingIndex.get(bookingId);
+                if (pending.isEmpty()) {
                         return BookingDetailsResponse.builder()
                                         .message("Booking is no longer pending")
                                         .build();
                 }
 
-                // For now, just reject. In a real app, you might reassign to another driver
-                booking.setTripStatus(TripStatus.REJECTED);
-                Booking savedBooking = bookingRepository.save(booking);
+                declinedDrivers.decline(bookingId, user.referenceId());
+                driverDispatcher.reoffer(bookingId, user.referenceId());
 
-                return mapToResponse(savedBooking, "Booking rejected");
+                return pending.get().toBuilder()
+                                .message("Booking rejected. It will be offered to other drivers.")
+                                .build();
         }
 
         /**
@@ -140,11 +193,9 @@ public class RideBookingService {
          * Get customer's bookings
          */
         public List<BookingDetailsResponse> getCustomerBookings() {
-                String email = SecurityContextHolder.getContext().getAuthentication().getName();
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                JwtPrincipal user = JwtPrincipal.require();
 
-                List<Booking> bookings = bookingRepository.findByCustomerIdOrderByBookedAtDesc(user.getReferenceId());
+                List<Booking> bookings = bookingRepository.findByCustomerIdOrderByBookedAtDesc(user.referenceId());
                 return bookings.stream()
                                 .map(b -> mapToResponse(b, null))
                                 .collect(Collectors.toList());
@@ -154,11 +205,9 @@ public class RideBookingService {
          * Get driver's accepted bookings
          */
         public List<BookingDetailsResponse> getDriverBookings() {
-                String email = SecurityContextHolder.getContext().getAuthentication().getName();
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                JwtPrincipal user = JwtPrincipal.require();
 
-                List<Booking> bookings = bookingRepository.findByDriverIdOrderByBookedAtDesc(user.getReferenceId());
+                List<Booking> bookings = bookingRepository.findByDriverIdOrderByBookedAtDesc(user.referenceId());
                 return bookings.stream()
                                 .map(b -> mapToResponse(b, null))
                                 .collect(Collectors.toList());
@@ -168,66 +217,53 @@ public class RideBookingService {
          * Start trip (driver marks as in progress)
          */
         public BookingDetailsResponse startTrip(int bookingId) {
-                String email = SecurityContextHolder.getContext().getAuthentication().getName();
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                JwtPrincipal user = JwtPrincipal.require();
 
-                Booking booking = bookingRepository.findById(bookingId)
-                                .orElseThrow(() -> new RuntimeException("Booking not found"));
+                BookingStateMachine.Result result = bookingStateMachine.fire(bookingId, BookingTransition.START,
+                                user.referenceId());
+                Booking booking = existing(result);
 
-                if (!booking.getDriverId().equals(user.getReferenceId())) {
-                        return BookingDetailsResponse.builder()
-                                        .message("You are not assigned to this booking")
-                                        .build();
+                if (!result.applied()) {
+                        return refusedResponse(booking, user, "start trip");
                 }
-
-                booking.setTripStatus(TripStatus.IN_PROGRESS);
-                Booking savedBooking = bookingRepository.save(booking);
-                return mapToResponse(savedBooking, "Trip started!");
+                return mapToResponse(booking, "Trip started!");
         }
 
         /**
          * Complete trip
          */
         public BookingDetailsResponse completeTrip(int bookingId) {
-                String email = SecurityContextHolder.getContext().getAuthentication().getName();
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                JwtPrincipal user = JwtPrincipal.require();
 
-                Booking booking = bookingRepository.findById(bookingId)
-                                .orElseThrow(() -> new RuntimeException("Booking not found"));
+                BookingStateMachine.Result result = bookingStateMachine.fire(bookingId, BookingTransition.COMPLETE,
+                                user.referenceId());
+                Booking booking = existing(result);
+
+                if (!result.applied()) {
+                        return refusedResponse(booking, user, "complete trip");
+                }
+                return mapToResponse(booking, "Trip completed! Fare: ₹" + booking.getBillAmount());
+        }
+
+        private Booking existing(BookingStateMachine.Result result) {
+                if (result.booking() == null) {
+                        throw new RuntimeException("Booking not found");
+                }
+                return result.booking();
+        }
 
-                if (!booking.getDriverId().equals(user.getReferenceId())) {
+        private BookingDetailsResponse refusedResponse(Booking booking, JwtPrincipal user, String action) {
+                if (!user.referenceId().equals(booking.getDriverId())) {
                         return BookingDetailsResponse.builder()
                                         .message("You are not assigned to this booking")
                                         .build();
                 }
-
-                booking.setTripStatus(TripStatus.COMPLETED);
-                Booking savedBooking = bookingRepository.save(booking);
-                return mapToResponse(savedBooking, "Trip completed! Fare: ₹" + booking.getBillAmount());
+                return BookingDetailsResponse.builder()
+                                .message("Cannot " + action + " in current status: " + booking.getTripStatus())
+                                .build();
         }
 
         private BookingDetailsResponse mapToResponse(Booking booking, String message) {
-                return BookingDetailsResponse.builder()
-                                .bookingId(booking.getBookingId())
-                                .customerId(booking.getCustomerId())
-                                .customerEmail(booking.getCustomerEmail())
-                                .driverId(booking.getDriverId())
-                                .driverEmail(booking.getDriverEmail())
-                                .pickupAddress(booking.getPickupAddress())
-                                .pickupLat(booking.getPickupLat())
-                                .pickupLng(booking.getPickupLng())
-                                .destinationAddress(booking.getDestinationAddress())
-                                .destinationLat(booking.getDestinationLat())
-                                .destinationLng(booking.getDestinationLng())
-                                .tripDistanceInKm(booking.getTripDistanceInKm())
-                                .estimatedTimeMin(booking.getEstimatedTimeMin())
-                                .billAmount(booking.getBillAmount())
-                                .rideType(booking.getRideType())
-                                .tripStatus(booking.getTripStatus())
-                                .bookedAt(booking.getBookedAt())
-                                .message(message)
-                                .build();
+                return BookingTransformer.bookingToBookingDetailsResponse(booking, message);
         }
 }
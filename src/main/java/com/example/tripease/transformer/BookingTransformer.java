@@ -2,6 +2,7 @@ package com.example.tripease.transformer;
 
 import com.example.tripease.Enum.TripStatus;
 import com.example.tripease.dto.request.BookingRequest;
+import com.example.tripease.dto.response.BookingDetailsResponse;
 import com.example.tripease.dto.response.BookingResponse;
 import com.example.tripease.model.Booking;
 import com.example.tripease.model.Cab;
@@ -35,4 +36,27 @@ public class BookingTransformer {
                 .cab(CabTransformer.cabToCabResponse(cab, driver))
                 .build();
     }
+
+    public static BookingDetailsResponse bookingToBookingDetailsResponse(Booking booking, String message) {
+        return BookingDetailsResponse.builder()
+                .bookingId(booking.getBookingId())
+                .customerId(booking.getCustomerId())
+                .customerEmail(booking.getCustomerEmail())
+                .driverId(booking.getDriverId())
+                .driverEmail(booking.getDriverEmail())
+                .pickupAddress(booking.getPickupAddress())
+                .pickupLat(booking.getPickupLat())
+                .pickupLng(booking.getPickupLng())
+                .destinationAddress(booking.getDestinationAddress())
+                .destinationLat(booking.getDestinationLat())
+                .destinationLng(booking.getDestinationLng())
+                .tripDistanceInKm(booking.getTripDistanceInKm())
+                .estimatedTimeMin(booking.getEstimatedTimeMin())
+                .billAmount(booking.getBillAmount())
+                .rideType(booking.getRideType())
+                .tripStatus(booking.getTripStatus())
+                .bookedAt(booking.getBookedAt())
+                .message(message)
+                .build();
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.tripease.benchmark;
+
+import com.example.tripease.dispatch.BulkHaversine;
+import com.example.tripease.dispatch.GeoMath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance from one pickup to every candidate driver: the SIMD kernel, the
+ * hoisted scalar loop and one {@link GeoMath#haversineKm} call per pair.
+ * Single-threaded, so candidates * 1e9 / (ns/op) is distances per second
+ * per core.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BulkHaversineBenchmark {
+
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LNG = 77.5946;
+    private static final double SPAN_DEG = 0.36; // ~40 km
+
+    @Param({"1000", "10000"})
+    private int candidates;
+
+    private double[] lats;
+    private double[] lngs;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        if (!BulkHaversine.isVectorized()) {
+            System.err.println("Vector API unavailable, bulk results are the scalar fallback");
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        lats = new double[candidates];
+        lngs = new double[candidates];
+        out = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            lats[i] = CENTER_LAT - SPAN_DEG / 2 + random.nextDouble() * SPAN_DEG;
+            lngs[i] = CENTER_LNG - SPAN_DEG / 2 + random.nextDouble() * SPAN_DEG;
+        }
+    }
+
+    @Benchmark
+    public double[] bulk() {
+        BulkHaversine.distancesKm(CENTER_LAT, CENTER_LNG, lats, lngs, candidates, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        BulkHaversine.scalarDistancesKm(CENTER_LAT, CENTER_LNG, lats, lngs, 0, candidates, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] perPair() {
+        for (int i = 0; i < candidates; i++) {
+            out[i] = GeoMath.haversineKm(CENTER_LAT, CENTER_LNG, lats[i], lngs[i]);
+        }
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BulkHaversineBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.tripease.benchmark;
+
+import com.example.tripease.dispatch.DriverLocationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k-nearest-available-driver lookup with 50k online drivers spread over a
+ * 40 km x 40 km city. Target: p99 below 1 ms (see the p0.99 line of the
+ * sample-time output).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverLocationRegistryBenchmark {
+
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LNG = 77.5946;
+    private static final double SPAN_DEG = 0.36; // ~40 km
+
+    @Param({"50000"})
+    private int drivers;
+
+    @Param({"5"})
+    private int k;
+
+    private DriverLocationRegistry registry;
+    private double[] queryLat;
+    private double[] queryLng;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        registry = new DriverLocationRegistry(1.0, TimeUnit.HOURS.toMillis(1));
+        SplittableRandom random = new SplittableRandom(42);
+        for (int id = 1; id <= drivers; id++) {
+            registry.update(id, randomLat(random), randomLng(random), true);
+        }
+        queryLat = new double[1024];
+        queryLng = new double[1024];
+        for (int i = 0; i < queryLat.length; i++) {
+            queryLat[i] = randomLat(random);
+            queryLng[i] = randomLng(random);
+        }
+    }
+
+    @Benchmark
+    public int[] nearestAvailable() {
+        int i = next++ & (queryLat.length - 1);
+        return registry.nearestAvailable(queryLat[i], queryLng[i], k, 5.0);
+    }
+
+    private static double randomLat(SplittableRandom random) {
+        return CENTER_LAT - SPAN_DEG / 2 + random.nextDouble() * SPAN_DEG;
+    }
+
+    private static double randomLng(SplittableRandom random) {
+        return CENTER_LNG - SPAN_DEG / 2 + random.nextDouble() * SPAN_DEG;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DriverLocationRegistryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.tripease.benchmark;
+
+import com.example.tripease.dto.request.FareCalculationRequest;
+import com.example.tripease.dto.response.FareCalculationResponse;
+import com.example.tripease.routing.RouteCache;
+import com.example.tripease.routing.RouteDistance;
+import com.example.tripease.service.FareQuoteStore;
+import com.example.tripease.service.FareRateCards;
+import com.example.tripease.service.FareService;
+import com.example.tripease.service.FareTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fare path cost. {@code rateTable} is the pricing arithmetic alone and
+ * should report 0 B/op in the gc.alloc.rate.norm column; {@code fareResponse}
+ * is a full route-cache-hit estimate including the response objects and
+ * the signed fare quote.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FareBenchmark {
+
+    private final FareTable fareTable = FareTable.defaults();
+    private final int[] fares = new int[FareTable.bufferSize()];
+
+    private FareService fareService;
+    private FareCalculationRequest[] requests;
+    private double[] distanceKm;
+    private int[] durationMin;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RouteCache routeCache = new RouteCache(new SimpleMeterRegistry(), 50, TimeUnit.HOURS.toMillis(1), 16 << 20);
+        fareService = new FareService(routeCache,
+                (originLat, originLng, destLat, destLng) -> CompletableFuture.completedFuture(
+                        RouteDistance.of(12.4, 31, false)),
+                new FareQuoteStore(new SimpleMeterRegistry(), "benchmark-secret", TimeUnit.MINUTES.toMillis(10)),
+                FareRateCards.of(fareTable), 1000, 8);
+
+        SplittableRandom random = new SplittableRandom(42);
+        requests = new FareCalculationRequest[1024];
+        distanceKm = new double[1024];
+        durationMin = new int[1024];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = FareCalculationRequest.builder()
+                    .pickupLat(12.80 + random.nextDouble() * 0.36).pickupLng(77.41 + random.nextDouble() * 0.36)
+                    .destinationLat(12.80 + random.nextDouble() * 0.36)
+                    .destinationLng(77.41 + random.nextDouble() * 0.36)
+                    .build();
+            distanceKm[i] = random.nextDouble() * 40;
+            durationMin[i] = (int) (distanceKm[i] * 3);
+            // Warm the route cache so fareResponse measures the hit path
+            fareService.calculateFare(requests[i]);
+        }
+    }
+
+    @Benchmark
+    public int[] rateTable() {
+        int i = next++ & (distanceKm.length - 1);
+        fareTable.compute(distanceKm[i], durationMin[i], fares);
+        return fares;
+    }
+
+    @Benchmark
+    public FareCalculationResponse fareResponse() {
+        int i = next++ & (requests.length - 1);
+        return fareService.calculateFare(requests[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FareBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
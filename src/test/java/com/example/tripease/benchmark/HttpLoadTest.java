@@ -0,0 +1,122 @@
+package com.example.tripease.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform and virtual
+ * thread execution modes against a running instance. Each of
+ * {@code concurrency} clients (virtual threads here, so the generator itself
+ * is not the bottleneck) sends a request, waits for the answer and repeats.
+ * Prints throughput and latency percentiles after a warm-up.
+ * <pre>
+ * HttpLoadTest &lt;url&gt; [concurrency=1000] [seconds=30] [json body, sends POST]
+ * </pre>
+ * Run once against the app started with {@code spring.threads.virtual.enabled=false}
+ * and once with {@code true}, on an endpoint that blocks (e.g. a JDBC-backed one
+ * such as {@code /actuator/health}) and with concurrency above
+ * {@code server.tomcat.threads.max} (200 by default).
+ */
+public class HttpLoadTest {
+
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: HttpLoadTest <url> [concurrency] [seconds] [json body]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String body = args.length > 3 ? args[3] : null;
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30));
+        HttpRequest request = body == null
+                ? builder.GET().build()
+                : builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(WARMUP_SECONDS).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<long[]>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.add(executor.submit(() -> run(client, request, measureFrom, measureUntil, errors)));
+            }
+        }
+
+        long[] latencies = clients.stream().map(HttpLoadTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s  concurrency=%d  duration=%ds%n", uri, concurrency, seconds);
+        System.out.printf("requests=%d  errors=%d  throughput=%.0f req/s%n",
+                latencies.length, errors.get(), latencies.length / (double) seconds);
+        if (latencies.length > 0) {
+            System.out.printf("latency ms  p50=%.1f  p90=%.1f  p99=%.1f  max=%.1f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    // Latencies (ns) of successful requests that started inside the measurement window
+    private static long[] run(HttpClient client, HttpRequest request, long measureFrom, long measureUntil,
+            AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            boolean measured = now >= measureFrom;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    if (measured) {
+                        errors.incrementAndGet();
+                    }
+                    continue;
+                }
+            } catch (Exception e) {
+                if (measured) {
+                    errors.incrementAndGet();
+                }
+                continue;
+            }
+            if (measured) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - now;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)));
+        return sorted[index] / 1e6;
+    }
+}
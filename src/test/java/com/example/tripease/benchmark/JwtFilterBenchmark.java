@@ -0,0 +1,122 @@
+package com.example.tripease.benchmark;
+
+import com.example.tripease.Enum.Role;
+import com.example.tripease.model.User;
+import com.example.tripease.repository.RevokedTokenRepository;
+import com.example.tripease.repository.UserRepository;
+import com.example.tripease.security.JwtAuthenticationFilter;
+import com.example.tripease.security.JwtService;
+import com.example.tripease.security.RevokedTokens;
+import com.example.tripease.security.TokenVersions;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code filter} runs
+ * {@link JwtAuthenticationFilter} with a warm token-version cache and the
+ * revoked-token filter, so it measures token handling, the revocation
+ * check and security-context setup only;
+ * {@code verifyCached} is the claims lookup on its own and
+ * {@code verifyUncached} what the filter paid before the cache: three full
+ * parses, each deriving the key and building a parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET =
+            "dHJpcGVhc2VzZWNyZXRrZXlmb3Jqd3R0b2tlbmdlbmVyYXRpb25hbmR2YWxpZGF0aW9u";
+    private static final int USERS = 1024;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String[] tokens;
+    private MockHttpServletRequest[] requests;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (request, response) -> { };
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, TimeUnit.HOURS.toMillis(1), 10_000);
+        User user = User.builder().id(1).email("rider@example.com").password("x").role(Role.CUSTOMER)
+                .referenceId(1).build();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionById(anyInt())).thenReturn(Optional.of(0));
+        TokenVersions tokenVersions = new TokenVersions(userRepository, new SimpleMeterRegistry(), 30_000, 1_000);
+        RevokedTokens revokedTokens = new RevokedTokens(mock(RevokedTokenRepository.class), new SimpleMeterRegistry(),
+                100_000, 0.001, 15_000, 3_600_000);
+        revokedTokens.start();
+        filter = new JwtAuthenticationFilter(jwtService, username -> user, tokenVersions, revokedTokens);
+
+        tokens = new String[USERS];
+        requests = new MockHttpServletRequest[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtService.generateToken(user);
+            requests[i] = new MockHttpServletRequest("GET", "/customer/bookings");
+            requests[i].addHeader("Authorization", "Bearer " + tokens[i]);
+        }
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        int i = next++ & (USERS - 1);
+        filter.doFilter(requests[i], response, chain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return jwtService.extractAllClaims(tokens[next++ & (USERS - 1)]);
+    }
+
+    @Benchmark
+    public Object verifyUncached() {
+        String token = tokens[next++ & (USERS - 1)];
+        String subject = parse(token).getSubject();
+        String again = parse(token).getSubject();
+        return subject.equals(again) ? parse(token).getExpiration() : null;
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
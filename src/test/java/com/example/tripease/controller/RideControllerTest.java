@@ -0,0 +1,45 @@
+package com.example.tripease.controller;
+
+import com.example.tripease.Enum.Role;
+import com.example.tripease.dispatch.PendingBookingStream;
+import com.example.tripease.security.JwtPrincipal;
+import com.example.tripease.service.RideBookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for RideController.
+ */
+class RideControllerTest {
+
+    private final RideBookingService rideBookingService = mock(RideBookingService.class);
+    private final RideController controller = new RideController(rideBookingService, mock(PendingBookingStream.class));
+
+    @Test
+    @DisplayName("Should refuse driver actions to customers with 403")
+    void driverActions_ForbiddenForCustomers() {
+        JwtPrincipal customer = new JwtPrincipal(1, "customer@example.com", Role.CUSTOMER, 3);
+
+        assertThat(controller.acceptBooking(customer, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.rejectBooking(customer, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.startTrip(customer, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.completeTrip(customer, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verifyNoInteractions(rideBookingService);
+    }
+
+    @Test
+    @DisplayName("Should refuse driver actions to a driver token without a driver id")
+    void driverActions_ForbiddenWithoutReferenceId() {
+        JwtPrincipal driver = new JwtPrincipal(2, "driver@example.com", Role.DRIVER, null);
+
+        assertThat(controller.acceptBooking(driver, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.completeTrip(driver, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.acceptBooking(null, 1).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verifyNoInteractions(rideBookingService);
+    }
+}
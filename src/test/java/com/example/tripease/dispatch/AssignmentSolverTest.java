@@ -0,0 +1,119 @@
+package com.example.tripease.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AssignmentSolver.
+ * Compares the auction result against brute force on small random matrices.
+ */
+class AssignmentSolverTest {
+
+    private static final double UNASSIGNED_COST = 6.0;
+    private static final double INFEASIBLE = Double.POSITIVE_INFINITY;
+
+    @Test
+    @DisplayName("Should pick the cheaper global assignment over the greedy one")
+    void solve_BeatsGreedy() {
+        // Greedy would give row 0 column 0 (1.0) and leave row 1 with column 1 (5.0)
+        double[][] cost = {
+                {1.0, 2.0},
+                {1.5, 5.0}
+        };
+
+        int[] assignment = solve(cost);
+
+        assertThat(assignment).containsExactly(1, 0);
+    }
+
+    @Test
+    @DisplayName("Should leave rows unassigned when there are not enough feasible columns")
+    void solve_MoreRowsThanFeasibleColumns() {
+        double[][] cost = {
+                {1.0, INFEASIBLE},
+                {2.0, INFEASIBLE},
+                {INFEASIBLE, INFEASIBLE}
+        };
+
+        int[] assignment = solve(cost);
+
+        assertThat(assignment).containsExactly(0, AssignmentSolver.UNASSIGNED, AssignmentSolver.UNASSIGNED);
+    }
+
+    @Test
+    @DisplayName("Should match brute force on random sparse matrices")
+    void solve_MatchesBruteForce() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            int rows = 1 + random.nextInt(6);
+            int cols = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    cost[i][j] = random.nextDouble() < 0.3 ? INFEASIBLE : random.nextDouble() * 5.0;
+                }
+            }
+
+            int[] assignment = solve(cost);
+
+            // Auction is optimal within rows * epsilon (epsilon = 1e-3 * unassigned cost)
+            assertThat(total(cost, assignment)).isLessThanOrEqualTo(bruteForce(cost, 0, new boolean[cols])
+                    + rows * UNASSIGNED_COST * 1e-3 + 1e-9);
+        }
+    }
+
+    private static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        int cols = cost[0].length;
+        int[] rowStart = new int[rows + 1];
+        int[] colIndex = new int[rows * cols];
+        double[] values = new double[rows * cols];
+        int entries = 0;
+        for (int i = 0; i < rows; i++) {
+            rowStart[i] = entries;
+            for (int j = 0; j < cols; j++) {
+                if (cost[i][j] != INFEASIBLE) {
+                    colIndex[entries] = j;
+                    values[entries] = cost[i][j];
+                    entries++;
+                }
+            }
+        }
+        rowStart[rows] = entries;
+        return AssignmentSolver.solve(rows, cols, rowStart, colIndex, values, UNASSIGNED_COST);
+    }
+
+    private static double total(double[][] cost, int[] assignment) {
+        boolean[] used = new boolean[cost[0].length];
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] == AssignmentSolver.UNASSIGNED) {
+                total += UNASSIGNED_COST;
+            } else {
+                assertThat(used[assignment[i]]).as("column assigned twice").isFalse();
+                used[assignment[i]] = true;
+                total += cost[i][assignment[i]];
+            }
+        }
+        return total;
+    }
+
+    private static double bruteForce(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = UNASSIGNED_COST + bruteForce(cost, row + 1, used);
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j] && cost[row][j] != INFEASIBLE) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
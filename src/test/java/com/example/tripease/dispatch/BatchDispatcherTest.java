@@ -0,0 +1,100 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchDispatcher.
+ */
+class BatchDispatcherTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    private final PendingBookingIndex pendingBookingIndex = new PendingBookingIndex(mock(BookingRepository.class), 1.0);
+    private final DriverLocationRegistry driverLocationRegistry = new DriverLocationRegistry(1.0, 60_000);
+    private final DriverDispatcher driverDispatcher = mock(DriverDispatcher.class);
+    private final DeclinedDrivers declinedDrivers = new DeclinedDrivers();
+
+    @BeforeEach
+    void setUp() {
+        when(driverDispatcher.getMode()).thenReturn(DispatchMode.BATCH);
+    }
+
+    @Test
+    @DisplayName("Should keep a proposal across windows even when a closer driver appears")
+    void dispatchWindow_KeepsEarlierAssignment() {
+        BatchDispatcher dispatcher = dispatcher(60_000);
+        pendingBookingIndex.add(booking(1));
+        driverLocationRegistry.update(10, LAT + 0.01, LNG, true);
+
+        dispatcher.dispatchWindow();
+        driverLocationRegistry.update(11, LAT + 0.001, LNG, true);
+        dispatcher.dispatchWindow();
+
+        assertThat(offeredDrivers()).containsExactly(10);
+    }
+
+    @Test
+    @DisplayName("Should match the booking again once the proposed driver declines")
+    void dispatchWindow_ReassignsAfterDecline() {
+        BatchDispatcher dispatcher = dispatcher(60_000);
+        pendingBookingIndex.add(booking(1));
+        driverLocationRegistry.update(10, LAT + 0.001, LNG, true);
+        driverLocationRegistry.update(11, LAT + 0.01, LNG, true);
+
+        dispatcher.dispatchWindow();
+        declinedDrivers.decline(1, 10);
+        dispatcher.dispatchWindow();
+
+        assertThat(offeredDrivers()).containsExactly(10, 11);
+    }
+
+    @Test
+    @DisplayName("Should take back an offer that timed out and solve the booking again")
+    void dispatchWindow_ResolvesAfterTimeout() {
+        BatchDispatcher dispatcher = dispatcher(0);
+        pendingBookingIndex.add(booking(1));
+        driverLocationRegistry.update(10, LAT + 0.01, LNG, true);
+
+        dispatcher.dispatchWindow();
+        driverLocationRegistry.update(11, LAT + 0.001, LNG, true);
+        dispatcher.dispatchWindow();
+
+        verify(driverDispatcher).reoffer(1, 10);
+        assertThat(offeredDrivers()).containsExactly(10, 11);
+    }
+
+    private BatchDispatcher dispatcher(long offerTimeoutMs) {
+        return new BatchDispatcher(pendingBookingIndex, driverLocationRegistry, driverDispatcher, declinedDrivers,
+                5.0, 5000, offerTimeoutMs);
+    }
+
+    private int[] offeredDrivers() {
+        ArgumentCaptor<int[]> drivers = ArgumentCaptor.forClass(int[].class);
+        verify(driverDispatcher, atLeast(0)).offer(any(BookingDetailsResponse.class), drivers.capture());
+        return drivers.getAllValues().stream().mapToInt(ids -> ids[0]).toArray();
+    }
+
+    private static Booking booking(int id) {
+        return Booking.builder()
+                .bookingId(id)
+                .bookedAt(new Date(1_000))
+                .pickupLat(LAT)
+                .pickupLng(LNG)
+                .tripStatus(TripStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.tripease.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for BulkHaversine.
+ */
+class BulkHaversineTest {
+
+    @Test
+    @DisplayName("Should match the per-pair Haversine distance, including the tail past the last full vector")
+    void distancesKm_MatchesGeoMath() {
+        SplittableRandom random = new SplittableRandom(7);
+        int count = 1003;
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = -80 + random.nextDouble() * 160;
+            lngs[i] = -180 + random.nextDouble() * 360;
+        }
+        double[] bulk = new double[count];
+        double[] scalar = new double[count];
+
+        BulkHaversine.distancesKm(12.9716, 77.5946, lats, lngs, count, bulk);
+        BulkHaversine.scalarDistancesKm(12.9716, 77.5946, lats, lngs, 0, count, scalar);
+
+        for (int i = 0; i < count; i++) {
+            double expected = GeoMath.haversineKm(12.9716, 77.5946, lats[i], lngs[i]);
+            assertThat(bulk[i]).isCloseTo(expected, within(1e-6));
+            assertThat(scalar[i]).isCloseTo(expected, within(1e-6));
+        }
+    }
+
+    @Test
+    @DisplayName("Should only write the first count entries")
+    void distancesKm_RespectsCount() {
+        double[] lats = {12.97, 12.98, 12.99, 13.00, 13.01};
+        double[] lngs = {77.59, 77.60, 77.61, 77.62, 77.63};
+        double[] out = {-1, -1, -1, -1, -1};
+
+        BulkHaversine.distancesKm(12.97, 77.59, lats, lngs, 3, out);
+
+        assertThat(out[0]).isCloseTo(0.0, within(1e-9));
+        assertThat(out[2]).isGreaterThan(0.0);
+        assertThat(out[3]).isEqualTo(-1);
+        assertThat(out[4]).isEqualTo(-1);
+    }
+}
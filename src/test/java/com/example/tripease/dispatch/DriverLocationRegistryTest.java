@@ -0,0 +1,98 @@
+package com.example.tripease.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DriverLocationRegistry.
+ */
+class DriverLocationRegistryTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    private final DriverLocationRegistry registry = new DriverLocationRegistry(1.0, 60_000);
+
+    @Test
+    @DisplayName("Should keep a busy driver out of matching when they keep pinging as available")
+    void update_DoesNotUndoMarkBusy() {
+        registry.update(1, LAT, LNG, true);
+        registry.markBusy(1);
+
+        registry.update(1, LAT + 0.001, LNG, true);
+
+        assertThat(registry.isBusy(1)).isTrue();
+        assertThat(registry.get(1).lat()).isEqualTo(LAT + 0.001);
+        assertThat(registry.availableCount()).isZero();
+        assertThat(registry.nearestAvailable(LAT, LNG, 3, 5.0)).isEmpty();
+        assertThat(registry.availableSnapshot().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should offer a driver again at their latest location once released")
+    void markAvailable_ReleasesAtLatestLocation() {
+        registry.markBusy(1);
+        registry.update(1, LAT + 0.05, LNG, true);
+
+        registry.markAvailable(1);
+
+        assertThat(registry.isBusy(1)).isFalse();
+        assertThat(registry.nearestAvailable(LAT + 0.05, LNG, 1, 1.0)).containsExactly(1);
+        assertThat(registry.nearestAvailable(LAT, LNG, 1, 1.0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not make an offline driver available when a trip ends")
+    void markAvailable_RespectsOfflineSwitch() {
+        registry.update(1, LAT, LNG, false);
+        registry.markBusy(1);
+
+        registry.markAvailable(1);
+
+        assertThat(registry.availableCount()).isZero();
+        assertThat(registry.nearestAvailable(LAT, LNG, 1, 5.0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return the k nearest available drivers, closest first, matching a full scan")
+    void nearestAvailable_MatchesBruteForce() {
+        Random random = new Random(7);
+        double[][] points = new double[500][];
+        for (int id = 0; id < points.length; id++) {
+            points[id] = new double[] {LAT + (random.nextDouble() - 0.5) * 0.2, LNG + (random.nextDouble() - 0.5) * 0.2};
+            registry.update(id, points[id][0], points[id][1], true);
+        }
+        registry.markBusy(0);
+        registry.update(1, points[1][0], points[1][1], false);
+
+        int[] expected = IntStream.range(2, points.length)
+                .boxed()
+                .filter(id -> GeoMath.haversineKm(LAT, LNG, points[id][0], points[id][1]) <= 4.0)
+                .sorted(Comparator.comparingDouble(id -> GeoMath.haversineKm(LAT, LNG, points[id][0], points[id][1])))
+                .limit(5)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int[] nearest = registry.nearestAvailable(LAT, LNG, 5, 4.0);
+
+        assertThat(nearest).containsExactly(expected);
+        assertThat(Arrays.stream(nearest)).doesNotContain(0, 1);
+    }
+
+    @Test
+    @DisplayName("Should skip drivers rejected by the filter and those beyond the radius")
+    void nearestAvailable_AppliesFilterAndRadius() {
+        registry.update(1, LAT, LNG, true);
+        registry.update(2, LAT + 0.005, LNG, true);
+        registry.update(3, LAT + 0.1, LNG, true);
+
+        assertThat(registry.nearestAvailable(LAT, LNG, 3, 2.0, id -> id != 1)).containsExactly(2);
+    }
+}
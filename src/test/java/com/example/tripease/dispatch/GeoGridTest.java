@@ -0,0 +1,97 @@
+package com.example.tripease.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for GeoGrid.
+ */
+class GeoGridTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Test
+    @DisplayName("Should visit every point within the radius")
+    void forEachNear_CoversRadius() {
+        GeoGrid grid = new GeoGrid(1.0);
+        Random random = new Random(42);
+        double[][] points = new double[2_000][];
+        for (int id = 0; id < points.length; id++) {
+            points[id] = new double[] {LAT + (random.nextDouble() - 0.5) * 0.4, LNG + (random.nextDouble() - 0.5) * 0.4};
+            grid.put(id, points[id][0], points[id][1]);
+        }
+
+        for (double radiusKm : new double[] {0.5, 2.0, 7.5}) {
+            Set<Integer> visited = new HashSet<>();
+            grid.forEachNear(LAT, LNG, radiusKm, visited::add);
+
+            for (int id = 0; id < points.length; id++) {
+                if (GeoMath.haversineKm(LAT, LNG, points[id][0], points[id][1]) <= radiusKm) {
+                    assertThat(visited).as("point %d within %s km", id, radiusKm).contains(id);
+                }
+            }
+            assertThat(visited.size()).isLessThan(points.length);
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip cells outside the bounding box of the radius")
+    void forEachNear_SkipsFarCells() {
+        GeoGrid grid = new GeoGrid(1.0);
+        grid.put(1, LAT, LNG);
+        grid.put(2, LAT + 0.5, LNG);
+
+        Set<Integer> visited = new HashSet<>();
+        grid.forEachNear(LAT, LNG, 3.0, visited::add);
+
+        assertThat(visited).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should move a re-put id and forget a removed one")
+    void putAndRemove_TrackCurrentCell() {
+        GeoGrid grid = new GeoGrid(1.0);
+        grid.put(1, LAT, LNG);
+        grid.put(1, LAT + 0.5, LNG);
+
+        Set<Integer> nearOld = new HashSet<>();
+        grid.forEachNear(LAT, LNG, 2.0, nearOld::add);
+        Set<Integer> nearNew = new HashSet<>();
+        grid.forEachNear(LAT + 0.5, LNG, 2.0, nearNew::add);
+
+        assertThat(nearOld).isEmpty();
+        assertThat(nearNew).containsExactly(1);
+        assertThat(grid.size()).isEqualTo(1);
+
+        grid.remove(1);
+        assertThat(grid.contains(1)).isFalse();
+        assertThat(grid.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find points across the antimeridian")
+    void forEachNear_WrapsLongitude() {
+        GeoGrid grid = new GeoGrid(1.0);
+        grid.put(1, 0.0, -179.995);
+
+        Set<Integer> visited = new HashSet<>();
+        grid.forEachNear(0.0, 179.995, 2.0, visited::add);
+
+        assertThat(visited).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive cell size")
+    void constructor_RejectsBadCellSize() {
+        assertThatThrownBy(() -> new GeoGrid(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PendingBookingIndex.
+ */
+class PendingBookingIndexTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final PendingBookingIndex index = new PendingBookingIndex(bookingRepository, 1.0);
+
+    @Test
+    @DisplayName("Should list pending bookings newest first, breaking ties by booking id")
+    void snapshot_NewestFirst() {
+        index.add(booking(1, 1_000));
+        index.add(booking(2, 3_000));
+        index.add(booking(3, 2_000));
+        index.add(booking(4, 3_000));
+
+        assertThat(ids(index.snapshot())).containsExactly(4, 2, 3, 1);
+    }
+
+    @Test
+    @DisplayName("Should replace a re-added booking and drop removed ones")
+    void addAndRemove_KeepOneEntryPerBooking() {
+        index.add(booking(1, 1_000));
+        index.add(booking(2, 2_000));
+        index.add(booking(1, 5_000));
+        index.remove(2);
+
+        assertThat(ids(index.snapshot())).containsExactly(1);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.contains(2)).isFalse();
+        assertThat(index.nearby(12.9716, 77.5946, 1)).extracting(BookingDetailsResponse::getBookingId)
+                .containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the database, dropping bookings no longer pending")
+    void rebuild_ReplacesContents() {
+        index.add(booking(9, 9_000));
+        when(bookingRepository.findByTripStatusAndDriverIdIsNullOrderByBookedAtDesc(TripStatus.PENDING))
+                .thenReturn(List.of(booking(5, 2_000), booking(6, 1_000)));
+
+        index.rebuild();
+
+        assertThat(ids(index.snapshot())).containsExactly(5, 6);
+        assertThat(index.get(9)).isEmpty();
+        assertThat(index.get(5)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should return only bookings within the radius, newest first")
+    void nearby_FiltersByExactDistance() {
+        index.add(booking(1, 1_000));
+        index.add(booking(2, 2_000, 12.9716 + 0.018, 77.5946));
+        index.add(booking(3, 3_000, 12.9716 + 0.009, 77.5946));
+
+        assertThat(ids(index.nearby(12.9716, 77.5946, 1.5))).containsExactly(3, 1);
+        assertThat(ids(index.nearby(12.9716, 77.5946, 2.5))).containsExactly(3, 2, 1);
+    }
+
+    private static List<Integer> ids(List<BookingDetailsResponse> bookings) {
+        return bookings.stream().map(BookingDetailsResponse::getBookingId).toList();
+    }
+
+    private static Booking booking(int id, long bookedAt) {
+        return booking(id, bookedAt, 12.9716, 77.5946);
+    }
+
+    private static Booking booking(int id, long bookedAt, double pickupLat, double pickupLng) {
+        return Booking.builder()
+                .bookingId(id)
+                .bookedAt(new Date(bookedAt))
+                .pickupLat(pickupLat)
+                .pickupLng(pickupLng)
+                .tripStatus(TripStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.tripease.dispatch;
+
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for PendingBookingStream.
+ * Emitters are stubs that record or block on writes, so no servlet container is needed.
+ */
+class PendingBookingStreamTest {
+
+    private final DeclinedDrivers declinedDrivers = new DeclinedDrivers();
+    private final PendingBookingStream stream = new PendingBookingStream(new ObjectMapper(),
+            new PendingBookingIndex(mock(BookingRepository.class), 1.0), declinedDrivers, 60_000, 4);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep delivering to other drivers while one client is stuck")
+    void broadcast_StuckClientDoesNotDelayOthers() throws Exception {
+        stream.register(new StuckEmitter(unblock), 1);
+        RecordingEmitter healthy = new RecordingEmitter(3);
+        stream.register(healthy, 2);
+
+        stream.onPendingBookingEvent(PendingBookingEvent.created(booking(10)));
+        stream.onPendingBookingEvent(PendingBookingEvent.created(booking(11)));
+
+        assertThat(healthy.received.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(healthy.events).containsExactly("pending-snapshot", "booking-created", "booking-created");
+    }
+
+    @Test
+    @DisplayName("Should drop a client whose outbox overflows")
+    void offer_OverflowDropsSubscriber() throws Exception {
+        StuckEmitter stuck = new StuckEmitter(unblock);
+        stream.register(stuck, 1);
+        stream.register(new RecordingEmitter(1), 2);
+        assertThat(stuck.sending.await(2, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 5; i++) {
+            stream.onPendingBookingEvent(PendingBookingEvent.created(booking(20 + i)));
+        }
+
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not push a booking event to a driver who declined the booking")
+    void broadcast_SkipsDecliner() throws Exception {
+        RecordingEmitter decliner = new RecordingEmitter(1);
+        RecordingEmitter other = new RecordingEmitter(2);
+        stream.register(decliner, 1);
+        stream.register(other, 2);
+        assertThat(decliner.received.await(2, TimeUnit.SECONDS)).isTrue();
+        declinedDrivers.decline(10, 1);
+
+        stream.onPendingBookingEvent(PendingBookingEvent.cancelled(booking(10)));
+
+        assertThat(other.received.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(other.events).containsExactly("pending-snapshot", "booking-cancelled");
+        assertThat(decliner.events).containsExactly("pending-snapshot");
+    }
+
+    @Test
+    @DisplayName("Should tell the assigned driver when their accepted booking is cancelled")
+    void onPendingBookingEvent_NotifiesAssignedDriver() throws Exception {
+        RecordingEmitter assigned = new RecordingEmitter(3);
+        stream.register(assigned, 7);
+        Booking cancelled = booking(10);
+        cancelled.setDriverId(7);
+        cancelled.setTripStatus(TripStatus.CANCELLED);
+
+        stream.onPendingBookingEvent(PendingBookingEvent.cancelled(cancelled));
+
+        assertThat(assigned.received.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(assigned.events).containsExactly("pending-snapshot", "booking-cancelled",
+                PendingBookingStream.MY_BOOKING_UPDATED);
+    }
+
+    private static Booking booking(int id) {
+        return Booking.builder()
+                .bookingId(id)
+                .bookedAt(new Date(1_000))
+                .pickupLat(12.9716)
+                .pickupLng(77.5946)
+                .tripStatus(TripStatus.PENDING)
+                .build();
+    }
+
+    private static String eventName(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+        String text = items.stream().map(item -> item.getData().toString()).collect(Collectors.joining());
+        return text.lines().filter(line -> line.startsWith("event:")).map(line -> line.substring(6))
+                .findFirst().orElse("");
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+
+        RecordingEmitter(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            events.add(eventName(items));
+            received.countDown();
+        }
+    }
+
+    private static final class StuckEmitter extends SseEmitter {
+        private final CountDownLatch unblock;
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        StuckEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            sending.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
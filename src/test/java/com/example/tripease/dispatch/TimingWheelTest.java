@@ -0,0 +1,72 @@
+package com.example.tripease.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TimingWheel.
+ * Deadlines span several levels so cascading between levels is exercised.
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_500L;
+    private static final long TICK = 1000;
+
+    @Test
+    @DisplayName("Should fire every id once, never early and at most one tick late")
+    void advance_FiresOnTime() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, START);
+        Random random = new Random(3);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int id = 0; id < 2000; id++) {
+            long deadline = START + random.nextInt(5_000_000);
+            wheel.add(id, deadline);
+            deadlines.put(id, deadline);
+        }
+
+        for (long now = START; !deadlines.isEmpty(); now += TICK) {
+            long at = now;
+            wheel.advance(now, id -> {
+                Long deadline = deadlines.remove(id);
+                assertThat(deadline).as("fired twice").isNotNull();
+                assertThat(deadline).as("fired early").isLessThanOrEqualTo(at);
+            });
+            long overdue = now - TICK;
+            assertThat(deadlines.values()).allMatch(deadline -> deadline > overdue);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not fire cancelled ids")
+    void cancel_RemovesId() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, START);
+        wheel.add(1, START + 5 * TICK);
+        wheel.add(2, START + 500 * TICK);
+
+        assertThat(wheel.cancel(2)).isTrue();
+        assertThat(wheel.cancel(2)).isFalse();
+
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(START + 1000 * TICK, fired::add);
+
+        assertThat(fired).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should refuse deadlines that have already passed")
+    void add_PastDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, START);
+
+        assertThat(wheel.add(1, START - 10 * TICK)).isFalse();
+        assertThat(wheel.contains(1)).isFalse();
+    }
+}
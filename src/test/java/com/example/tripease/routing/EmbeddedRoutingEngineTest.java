@@ -0,0 +1,164 @@
+package com.example.tripease.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for EmbeddedRoutingEngine on the bundled sample city graph
+ * (src/test/resources/routing/sample-city.csv), fully offline.
+ */
+class EmbeddedRoutingEngineTest {
+
+    @TempDir
+    static Path tempDir;
+
+    private static RoadGraph graph;
+    private static EmbeddedRoutingEngine engine;
+
+    @BeforeAll
+    static void loadGraph() throws IOException {
+        Path file = tempDir.resolve("sample-city.graph");
+        try (Reader reader = new InputStreamReader(
+                EmbeddedRoutingEngineTest.class.getResourceAsStream("/routing/sample-city.csv"),
+                StandardCharsets.UTF_8)) {
+            RoadGraphCompiler.compile(reader, file);
+        }
+        graph = RoadGraph.map(file);
+        engine = new EmbeddedRoutingEngine(graph, 500);
+    }
+
+    @Test
+    @DisplayName("Should load the compiled graph from the mapped file")
+    void map_LoadsGraph() {
+        assertThat(graph.nodeCount()).isEqualTo(226);
+        assertThat(graph.edgeCount()).isGreaterThan(700);
+    }
+
+    @Test
+    @DisplayName("Should match plain Dijkstra for every pair of sampled nodes, one-way streets included")
+    void fastest_MatchesDijkstra() {
+        for (int source = 0; source < graph.nodeCount(); source += 7) {
+            long[] expected = dijkstra(graph, source);
+            for (int target = 0; target < graph.nodeCount(); target += 5) {
+                long[] actual = engine.fastest(source, target);
+                if (expected[target] == Long.MAX_VALUE) {
+                    assertThat(actual).as("%d -> %d", source, target).isNull();
+                } else {
+                    assertThat(actual).as("%d -> %d", source, target).isNotNull();
+                    assertThat(actual[0]).as("%d -> %d", source, target).isEqualTo(expected[target]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should snap coordinates to the road graph and return a routed distance")
+    void route_SnapsAndRoutes() {
+        RouteDistance route = engine.routeNow(12.9600, 77.5800, 12.9850, 77.6050);
+
+        assertThat(route.approximate()).isFalse();
+        assertThat(route.distanceKm()).isBetween(5.0, 8.0);
+        assertThat(route.durationMin()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should refuse points far from any road")
+    void route_OffGraph() {
+        assertThatThrownBy(() -> engine.routeNow(13.5, 78.0, 12.9850, 77.6050))
+                .isInstanceOf(NoRouteException.class);
+        assertThat(engine.route(13.5, 78.0, 12.9850, 77.6050)).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("Should report no route to a node without roads")
+    void route_Unreachable() {
+        assertThatThrownBy(() -> engine.routeNow(12.9600, 77.5800, 13.0100, 77.6300))
+                .isInstanceOf(NoRouteException.class);
+    }
+
+    @Test
+    @DisplayName("Should stay optimal on graphs with zero-duration edges")
+    void fastest_ZeroDurationEdges() throws IOException {
+        // A slow 10 km street 0 -> 10, a fast ring road 0 -> 12 -> 13 -> 10 around it,
+        // and node 11 on the same point as node 10 joined by a 0 m, 0 ds edge
+        int kmLng = 9_218; // microdegrees of longitude per km at this latitude
+        int[] lat = new int[14];
+        int[] lng = new int[14];
+        Arrays.fill(lat, 12_960_000);
+        for (int v = 0; v <= 10; v++) {
+            lng[v] = 77_550_000 + v * kmLng;
+        }
+        lng[11] = lng[10];
+        lng[12] = lng[0] - 5 * kmLng;
+        lng[13] = lng[10] + 5 * kmLng;
+        // {a, b, meters, deciseconds}, each a two-way road
+        int[][] roads = {
+                {0, 1, 1000, 200}, {1, 2, 1000, 200}, {2, 3, 1000, 200}, {3, 4, 1000, 200}, {4, 5, 1000, 200},
+                {5, 6, 1000, 200}, {6, 7, 1000, 200}, {7, 8, 1000, 200}, {8, 9, 1000, 200}, {9, 10, 1000, 200},
+                {10, 11, 0, 0}, {0, 12, 5000, 50}, {12, 13, 20000, 100}, {13, 10, 5000, 50}};
+        int[] from = new int[2 * roads.length];
+        int[] to = new int[2 * roads.length];
+        int[] meters = new int[2 * roads.length];
+        int[] deciseconds = new int[2 * roads.length];
+        for (int i = 0; i < roads.length; i++) {
+            for (int direction = 0; direction < 2; direction++) {
+                int e = 2 * i + direction;
+                from[e] = roads[i][direction];
+                to[e] = roads[i][1 - direction];
+                meters[e] = roads[i][2];
+                deciseconds[e] = roads[i][3];
+            }
+        }
+        Path file = tempDir.resolve("zero-duration.graph");
+        RoadGraphCompiler.write(file, lat, lng, from, to, meters, deciseconds);
+        RoadGraph zeroGraph = RoadGraph.map(file);
+        EmbeddedRoutingEngine zeroEngine = new EmbeddedRoutingEngine(zeroGraph, 500);
+
+        for (int source = 0; source < zeroGraph.nodeCount(); source++) {
+            long[] expected = dijkstra(zeroGraph, source);
+            for (int target = 0; target < zeroGraph.nodeCount(); target++) {
+                long[] actual = zeroEngine.fastest(source, target);
+                assertThat(actual).as("%d -> %d", source, target).isNotNull();
+                assertThat(actual[0]).as("%d -> %d", source, target).isEqualTo(expected[target]);
+            }
+        }
+        assertThat(zeroEngine.fastest(0, 11)[0]).isEqualTo(200);
+    }
+
+    private static long[] dijkstra(RoadGraph graph, int source) {
+        long[] time = new long[graph.nodeCount()];
+        Arrays.fill(time, Long.MAX_VALUE);
+        time[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int v = (int) entry[1];
+            if (entry[0] > time[v]) {
+                continue;
+            }
+            for (int e = graph.outStart(v); e < graph.outStart(v + 1); e++) {
+                int w = graph.outTarget(e);
+                long candidate = time[v] + graph.outDeciseconds(e);
+                if (candidate < time[w]) {
+                    time[w] = candidate;
+                    queue.add(new long[]{candidate, w});
+                }
+            }
+        }
+        return time;
+    }
+}
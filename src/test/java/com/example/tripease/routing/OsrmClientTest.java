@@ -0,0 +1,145 @@
+package com.example.tripease.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for OsrmClient against a local stub routing server (no network access needed).
+ */
+class OsrmClientTest {
+
+    private static final String ROUTE_OK = "{\"code\":\"Ok\",\"routes\":[{\"distance\":12345.0,\"duration\":1500.0}]}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String body = ROUTE_OK;
+    private volatile long delayMs = 0;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/route/v1/driving/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should parse distance and duration from the routing server")
+    void route_ParsesResponse() {
+        RouteDistance route = client(new CircuitBreaker(3, 60_000)).route(12.97, 77.59, 13.19, 77.70).join();
+
+        assertThat(route.distanceKm()).isEqualTo(12.3);
+        assertThat(route.durationMin()).isEqualTo(25);
+        assertThat(route.approximate()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after repeated server errors and then fail without calling the server")
+    void route_OpensCircuit() {
+        status = 503;
+        body = "{}";
+        OsrmClient client = client(new CircuitBreaker(3, 60_000));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.route(12.97, 77.59, 13.19, 77.70).join())
+                    .isInstanceOf(CompletionException.class);
+        }
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.route(12.97, 77.59, 13.19, 77.70).join())
+                .hasCauseInstanceOf(OsrmClient.CircuitOpenException.class);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should close the circuit again after a successful trial call")
+    void route_HalfOpenTrialCloses() {
+        long[] now = {0};
+        CircuitBreaker breaker = new CircuitBreaker(1, 1_000, () -> now[0]);
+        OsrmClient client = client(breaker);
+        status = 500;
+        assertThatThrownBy(() -> client.route(12.97, 77.59, 13.19, 77.70).join())
+                .isInstanceOf(CompletionException.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        now[0] = 1_000;
+        status = 200;
+        client.route(12.97, 77.59, 13.19, 77.70).join();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should give up on a slow server at the request deadline")
+    void route_TimesOut() {
+        delayMs = 1_000;
+        OsrmClient client = client(new CircuitBreaker(3, 60_000));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.route(12.97, 77.59, 13.19, 77.70).join())
+                .isInstanceOf(CompletionException.class);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(900);
+    }
+
+    @Test
+    @DisplayName("Should not count a no-route answer as a server failure")
+    void route_NoRouteKeepsCircuitClosed() {
+        body = "{\"code\":\"NoRoute\",\"routes\":[]}";
+        OsrmClient client = client(new CircuitBreaker(1, 60_000));
+
+        assertThatThrownBy(() -> client.route(12.97, 77.59, 13.19, 77.70).join())
+                .hasCauseInstanceOf(NoRouteException.class);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should count a rate-limited reply as a server failure")
+    void route_TooManyRequestsOpensCircuit() {
+        status = 429;
+        body = "{\"message\":\"Too Many Requests\"}";
+        OsrmClient client = client(new CircuitBreaker(1, 60_000));
+
+        assertThatThrownBy(() -> client.route(12.97, 77.59, 13.19, 77.70).join())
+                .cause()
+                .isInstanceOf(RoutingException.class)
+                .isNotInstanceOf(NoRouteException.class);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private OsrmClient client(CircuitBreaker breaker) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new OsrmClient(new ObjectMapper(), baseUrl, 500, 200, breaker);
+    }
+}
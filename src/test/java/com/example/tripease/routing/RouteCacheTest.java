@@ -0,0 +1,146 @@
+package com.example.tripease.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RouteCache.
+ */
+class RouteCacheTest {
+
+    private final RouteCache routeCache = new RouteCache(new SimpleMeterRegistry(), 50, 60_000, 1_000_000);
+
+    @Test
+    @DisplayName("Should serve near-identical trips from the same snapped entry")
+    void get_SnapsNearbyCoordinates() {
+        AtomicInteger loads = new AtomicInteger();
+
+        routeCache.get(12.97160, 77.59460, 13.19890, 77.70680, () -> routed(loads));
+        RouteDistance second = routeCache.get(12.97161, 77.59462, 13.19891, 77.70679, () -> routed(loads));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second.distanceKm()).isEqualTo(34.5);
+    }
+
+    @Test
+    @DisplayName("Should route again for a trip starting a few hundred metres away")
+    void get_DistinctCellsMiss() {
+        AtomicInteger loads = new AtomicInteger();
+
+        routeCache.get(12.9716, 77.5946, 13.1989, 77.7068, () -> routed(loads));
+        routeCache.get(12.9756, 77.5946, 13.1989, 77.7068, () -> routed(loads));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache approximate fallback distances")
+    void get_SkipsApproximate() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            routeCache.get(12.9716, 77.5946, 13.1989, 77.7068, () -> {
+                loads.incrementAndGet();
+                return RouteDistance.of(30.0, 90, true);
+            });
+        }
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(routeCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight lookup between concurrent identical requests")
+    void getAsync_CoalescesConcurrentMisses() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<RouteDistance> backend = new CompletableFuture<>();
+
+        CompletableFuture<RouteDistance> first = routeCache.getAsync(12.97160, 77.59460, 13.19890, 77.70680, () -> {
+            loads.incrementAndGet();
+            return backend;
+        });
+        CompletableFuture<RouteDistance> second = routeCache.getAsync(12.97161, 77.59461, 13.19890, 77.70680, () -> {
+            loads.incrementAndGet();
+            return backend;
+        });
+        backend.complete(RouteDistance.of(34.5, 52, false));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.join()).isSameAs(second.join());
+        assertThat(routeCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hand a failed lookup to every waiter and retry on the next request")
+    void getAsync_FailureIsNotShared() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<RouteDistance> backend = new CompletableFuture<>();
+
+        CompletableFuture<RouteDistance> first = routeCache.getAsync(12.9716, 77.5946, 13.1989, 77.7068, () -> {
+            loads.incrementAndGet();
+            return backend;
+        });
+        CompletableFuture<RouteDistance> second = routeCache.getAsync(12.9716, 77.5946, 13.1989, 77.7068, () -> {
+            loads.incrementAndGet();
+            return backend;
+        });
+        backend.completeExceptionally(new IllegalStateException("routing down"));
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+
+        RouteDistance retried = routeCache.getAsync(12.9716, 77.5946, 13.1989, 77.7068,
+                () -> CompletableFuture.completedFuture(routed(loads))).join();
+        assertThat(retried.distanceKm()).isEqualTo(34.5);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should load each route once when lookups that complete at once race")
+    void getAsync_LoadsOnceUnderContention() throws Exception {
+        int routes = 200;
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < routes; i++) {
+                        routeCache.getAsync(12.0 + i * 0.01, 77.0, 13.0, 78.0,
+                                () -> CompletableFuture.completedFuture(routed(loads))).join();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(routes);
+    }
+
+    private static RouteDistance routed(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return RouteDistance.of(34.5, 52, false);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tripease.security;
+
+import com.example.tripease.Enum.Role;
+import com.example.tripease.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for JwtService.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET =
+            "dHJpcGVhc2VzZWNyZXRrZXlmb3Jqd3R0b2tlbmdlbmVyYXRpb25hbmR2YWxpZGF0aW9u";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+    private final User user = User.builder().id(7).email("rider@example.com").password("x")
+            .role(Role.CUSTOMER).referenceId(3).build();
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeat lookups from the cache")
+    void extractAllClaims_CachesVerifiedToken() {
+        String token = jwtService.generateToken(user);
+
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        assertThat(first.getSubject()).isEqualTo("rider@example.com");
+        assertThat(second).isSameAs(first);
+        assertThat(jwtService.cachedTokens()).isEqualTo(1);
+        assertThat(jwtService.isTokenValid(token, user)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject an altered token and not cache it")
+    void extractAllClaims_RejectsTamperedToken() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.charAt(token.length() - 2) == 'A' ? "B" : "A") + token.charAt(token.length() - 1);
+
+        assertThatThrownBy(() -> jwtService.extractAllClaims(tampered)).isInstanceOf(JwtException.class);
+        assertThat(jwtService.cachedTokens()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void extractAllClaims_RejectsExpiredToken() {
+        String token = new JwtService(SECRET, -1_000, 100).generateToken(user);
+
+        assertThatThrownBy(() -> jwtService.extractAllClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should not accept a valid token for a different user")
+    void isTokenValid_RequiresMatchingSubject() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(user));
+        User other = User.builder().email("other@example.com").password("x").role(Role.CUSTOMER).build();
+
+        assertThat(jwtService.isTokenValid(claims, other)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should describe the user from the token claims alone")
+    void principalOf_ReadsUserClaims() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(user));
+
+        assertThat(jwtService.principalOf(claims))
+                .isEqualTo(new JwtPrincipal(7, "rider@example.com", Role.CUSTOMER, 3));
+        assertThat(jwtService.tokenVersionOf(claims)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report no principal for a token without user claims")
+    void principalOf_LegacyTokenHasNone() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken((UserDetails) user));
+
+        assertThat(jwtService.principalOf(claims)).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.tripease.security;
+
+import com.example.tripease.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RevokedTokens.
+ */
+class RevokedTokensTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private RevokedTokens revokedTokens;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findActiveTokenIds(any())).thenReturn(List.of("revoked-at-startup"));
+        revokedTokens = new RevokedTokens(repository, new SimpleMeterRegistry(), 1_000, 0.001, 15_000, 3_600_000,
+                now::get);
+        revokedTokens.start();
+    }
+
+    @Test
+    @DisplayName("Should answer for unrevoked tokens without querying the database")
+    void isRevoked_NegativeSkipsDatabase() {
+        assertThat(revokedTokens.isRevoked("some-live-token")).isFalse();
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should confirm a filter hit against the database")
+    void isRevoked_HitIsConfirmed() {
+        when(repository.existsById("revoked-at-startup")).thenReturn(true);
+
+        assertThat(revokedTokens.isRevoked("revoked-at-startup")).isTrue();
+        assertThat(revokedTokens.isRevoked("revoked-at-startup")).isTrue();
+        verify(repository).existsById("revoked-at-startup");
+    }
+
+    @Test
+    @DisplayName("Should reject a token as soon as it is revoked on this instance")
+    void revoke_TakesEffectImmediately() {
+        revokedTokens.revoke("logged-out", 7, new Date(now.get() + 60_000));
+
+        assertThat(revokedTokens.isRevoked("logged-out")).isTrue();
+        verify(repository).save(any());
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations made by other instances on refresh")
+    void refresh_AddsRemoteRevocations() {
+        when(repository.findTokenIdsRevokedSince(any(), any())).thenReturn(List.of("revoked-elsewhere"));
+        when(repository.existsById("revoked-elsewhere")).thenReturn(true);
+        assertThat(revokedTokens.isRevoked("revoked-elsewhere")).isFalse();
+
+        now.addAndGet(15_000);
+        revokedTokens.refresh();
+
+        assertThat(revokedTokens.isRevoked("revoked-elsewhere")).isTrue();
+    }
+}
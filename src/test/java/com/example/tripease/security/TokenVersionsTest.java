@@ -0,0 +1,56 @@
+package com.example.tripease.security;
+
+import com.example.tripease.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TokenVersions.
+ */
+class TokenVersionsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersions tokenVersions =
+            new TokenVersions(userRepository, new SimpleMeterRegistry(), 60_000, 100);
+
+    @Test
+    @DisplayName("Should read a user's token version once and answer later checks from memory")
+    void isCurrent_CachesVersion() {
+        when(userRepository.findTokenVersionById(7)).thenReturn(Optional.of(2));
+
+        assertThat(tokenVersions.isCurrent(7, 2)).isTrue();
+        assertThat(tokenVersions.isCurrent(7, 2)).isTrue();
+        assertThat(tokenVersions.isCurrent(7, 1)).isFalse();
+        verify(userRepository, times(1)).findTokenVersionById(7);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens issued before a revocation")
+    void revokeAll_InvalidatesEarlierTokens() {
+        when(userRepository.findTokenVersionById(7)).thenReturn(Optional.of(0), Optional.of(1));
+        assertThat(tokenVersions.isCurrent(7, 0)).isTrue();
+
+        tokenVersions.revokeAll(7);
+
+        verify(userRepository).incrementTokenVersion(7);
+        assertThat(tokenVersions.isCurrent(7, 0)).isFalse();
+        assertThat(tokenVersions.isCurrent(7, 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens of a user that no longer exists")
+    void isCurrent_UnknownUser() {
+        when(userRepository.findTokenVersionById(9)).thenReturn(Optional.empty());
+
+        assertThat(tokenVersions.isCurrent(9, 0)).isFalse();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.DocumentStatus;
+import com.example.tripease.Enum.Role;
+import com.example.tripease.dto.request.LoginRequest;
+import com.example.tripease.dto.response.AuthResponse;
+import com.example.tripease.exception.BadRequestException;
+import com.example.tripease.exception.UnauthorizedException;
+import com.example.tripease.model.User;
+import com.example.tripease.repository.CustomerRepository;
+import com.example.tripease.repository.DriverRepository;
+import com.example.tripease.repository.UserRepository;
+import com.example.tripease.security.JwtService;
+import com.example.tripease.security.TokenVersions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AuthService login path.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+        @Mock
+        private UserRepository userRepository;
+
+        @Mock
+        private DriverRepository driverRepository;
+
+        @Mock
+        private CustomerRepository customerRepository;
+
+        @Mock
+        private PasswordEncoder passwordEncoder;
+
+        @Mock
+        private JwtService jwtService;
+
+        @Mock
+        private TokenVersions tokenVersions;
+
+        @InjectMocks
+        private AuthService authService;
+
+        @Test
+        @DisplayName("Should log in an approved driver from the single login query")
+        void loginDriver_Approved() {
+                UserRepository.LoginView login = driverLogin(DocumentStatus.APPROVED);
+                when(userRepository.findLoginByEmail("driver@example.com")).thenReturn(Optional.of(login));
+                when(passwordEncoder.matches("secret123", "hash")).thenReturn(true);
+                when(jwtService.generateToken(any(User.class))).thenReturn("token");
+
+                AuthResponse response = authService.loginDriver(request());
+
+                assertThat(response.getToken()).isEqualTo("token");
+                assertThat(response.getName()).isEqualTo("Ravi");
+                assertThat(response.getReferenceId()).isEqualTo(5);
+                verify(userRepository, times(1)).findLoginByEmail("driver@example.com");
+                verifyNoMoreInteractions(userRepository);
+                verifyNoInteractions(driverRepository);
+        }
+
+        @Test
+        @DisplayName("Should refuse a driver whose documents are still pending")
+        void loginDriver_PendingDocuments() {
+                UserRepository.LoginView login = driverLogin(DocumentStatus.PENDING);
+                when(userRepository.findLoginByEmail("driver@example.com")).thenReturn(Optional.of(login));
+                when(passwordEncoder.matches("secret123", "hash")).thenReturn(true);
+
+                assertThatThrownBy(() -> authService.loginDriver(request()))
+                                .isInstanceOf(BadRequestException.class)
+                                .hasMessageContaining("pending verification");
+        }
+
+        @Test
+        @DisplayName("Should reject a wrong password and an unknown email the same way")
+        void login_InvalidCredentials() {
+                UserRepository.LoginView login = driverLogin(DocumentStatus.APPROVED);
+                when(userRepository.findLoginByEmail("driver@example.com")).thenReturn(Optional.of(login));
+                when(userRepository.findLoginByEmail("nobody@example.com")).thenReturn(Optional.empty());
+                when(passwordEncoder.encode(anyString())).thenReturn("dummy-hash");
+
+                assertThatThrownBy(() -> authService.loginDriver(request()))
+                                .isInstanceOf(UnauthorizedException.class)
+                                .hasMessage("Invalid email or password");
+                assertThatThrownBy(() -> authService.loginCustomer(
+                                LoginRequest.builder().email("nobody@example.com").password("secret123").build()))
+                                .isInstanceOf(UnauthorizedException.class)
+                                .hasMessage("Invalid email or password");
+                verify(passwordEncoder).matches("secret123", "dummy-hash");
+        }
+
+        @Test
+        @DisplayName("Should re-encode the password when the stored hash uses outdated settings")
+        void login_UpgradesHash() {
+                UserRepository.LoginView login = driverLogin(DocumentStatus.APPROVED);
+                when(userRepository.findLoginByEmail("driver@example.com")).thenReturn(Optional.of(login));
+                when(passwordEncoder.matches("secret123", "hash")).thenReturn(true);
+                when(passwordEncoder.upgradeEncoding("hash")).thenReturn(true);
+                when(passwordEncoder.encode("secret123")).thenReturn("stronger-hash");
+
+                authService.loginDriver(request());
+
+                verify(userRepository).updatePassword(1, "stronger-hash");
+        }
+
+        private static LoginRequest request() {
+                return LoginRequest.builder().email("driver@example.com").password("secret123").build();
+        }
+
+        private static UserRepository.LoginView driverLogin(DocumentStatus status) {
+                UserRepository.LoginView login = mock(UserRepository.LoginView.class, withSettings().strictness(Strictness.LENIENT));
+                when(login.getId()).thenReturn(1);
+                when(login.getEmail()).thenReturn("driver@example.com");
+                when(login.getPassword()).thenReturn("hash");
+                when(login.getRole()).thenReturn(Role.DRIVER);
+                when(login.getReferenceId()).thenReturn(5);
+                when(login.getDriverName()).thenReturn("Ravi");
+                when(login.getDocumentId()).thenReturn(9L);
+                when(login.getDocumentStatus()).thenReturn(status);
+                return login;
+        }
+}
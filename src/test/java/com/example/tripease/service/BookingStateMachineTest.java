@@ -0,0 +1,183 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.BookingTransition;
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dispatch.DriverLocationRegistry;
+import com.example.tripease.dispatch.PendingBookingEvent;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookingStateMachine.
+ * Checks the transition table, the conditional updates it issues and its hooks.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingStateMachineTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DriverLocationRegistry driverLocationRegistry;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingStateMachine stateMachine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stateMachine = new BookingStateMachine(bookingRepository, eventPublisher, driverLocationRegistry, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should only allow transitions listed in the table")
+    void canFire_FollowsTable() {
+        assertThat(stateMachine.canFire(TripStatus.PENDING, BookingTransition.ACCEPT)).isTrue();
+        assertThat(stateMachine.canFire(TripStatus.ACCEPTED, BookingTransition.CANCEL)).isTrue();
+        assertThat(stateMachine.canFire(TripStatus.PENDING, BookingTransition.COMPLETE)).isFalse();
+        assertThat(stateMachine.canFire(TripStatus.IN_PROGRESS, BookingTransition.CANCEL)).isFalse();
+        assertThat(stateMachine.canFire(TripStatus.COMPLETED, BookingTransition.START)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should cancel from every allowed source status in one update and publish the event")
+    void fire_CancelAppliesAndPublishes() {
+        Booking cancelled = booking(TripStatus.CANCELLED, null);
+        when(bookingRepository.transitionStatus(1, EnumSet.of(TripStatus.PENDING, TripStatus.ACCEPTED),
+                TripStatus.CANCELLED)).thenReturn(1);
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(cancelled));
+
+        BookingStateMachine.Result result = stateMachine.fire(1, BookingTransition.CANCEL);
+
+        assertThat(result.applied()).isTrue();
+        assertThat(result.booking()).isSameAs(cancelled);
+        verify(eventPublisher).publishEvent(any(PendingBookingEvent.class));
+        verifyNoInteractions(driverLocationRegistry);
+        assertThat(meterRegistry.get("booking.transitions").tag("transition", "cancel")
+                .tag("result", "applied").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should refuse without running hooks when the conditional update matches no row")
+    void fire_RefusedWhenGuardFails() {
+        Booking otherDriver = booking(TripStatus.IN_PROGRESS, 9);
+        when(bookingRepository.transitionStatusForDriver(1, EnumSet.of(TripStatus.IN_PROGRESS),
+                TripStatus.COMPLETED, 7)).thenReturn(0);
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(otherDriver));
+
+        BookingStateMachine.Result result = stateMachine.fire(1, BookingTransition.COMPLETE, 7);
+
+        assertThat(result.applied()).isFalse();
+        verifyNoInteractions(driverLocationRegistry);
+        assertThat(meterRegistry.get("booking.transitions").tag("transition", "complete")
+                .tag("result", "refused").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should mark the driver available after completing a trip")
+    void fire_CompleteReleasesDriver() {
+        when(bookingRepository.transitionStatusForDriver(1, EnumSet.of(TripStatus.IN_PROGRESS),
+                TripStatus.COMPLETED, 7)).thenReturn(1);
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking(TripStatus.COMPLETED, 7)));
+
+        stateMachine.fire(1, BookingTransition.COMPLETE, 7);
+
+        verify(driverLocationRegistry).markAvailable(7);
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of two concurrent claims win the booking")
+    void accept_ConcurrentClaimsHaveOneWinner() throws Exception {
+        // Stands in for the row: the conditional UPDATE only matches while no driver is set
+        AtomicReference<Integer> assignedDriver = new AtomicReference<>();
+        when(bookingRepository.claimPendingBooking(eq(1), anyInt(), anyString(), eq(TripStatus.PENDING),
+                eq(TripStatus.ACCEPTED)))
+                .thenAnswer(invocation -> assignedDriver.compareAndSet(null, invocation.getArgument(1)) ? 1 : 0);
+        when(bookingRepository.findById(1))
+                .thenAnswer(invocation -> Optional.of(booking(TripStatus.ACCEPTED, assignedDriver.get())));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<BookingStateMachine.Result> first = pool.submit(() -> {
+                start.await();
+                return stateMachine.accept(1, 7, "seven@example.com");
+            });
+            Future<BookingStateMachine.Result> second = pool.submit(() -> {
+                start.await();
+                return stateMachine.accept(1, 8, "eight@example.com");
+            });
+            start.countDown();
+
+            List<BookingStateMachine.Result> results = List.of(first.get(5, TimeUnit.SECONDS),
+                    second.get(5, TimeUnit.SECONDS));
+
+            assertThat(results).filteredOn(BookingStateMachine.Result::applied).hasSize(1);
+            assertThat(results).extracting(result -> result.booking().getDriverId())
+                    .containsOnly(assignedDriver.get());
+            verify(eventPublisher, times(1)).publishEvent(any(PendingBookingEvent.class));
+            verify(driverLocationRegistry).markBusy(assignedDriver.get());
+            assertThat(meterRegistry.get("booking.transitions").tag("transition", "accept")
+                    .tag("result", "refused").counter().count()).isEqualTo(1.0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should release the driver when an accepted booking is cancelled")
+    void fire_CancelReleasesDriver() {
+        when(bookingRepository.transitionStatus(1, EnumSet.of(TripStatus.PENDING, TripStatus.ACCEPTED),
+                TripStatus.CANCELLED)).thenReturn(1);
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking(TripStatus.CANCELLED, 7)));
+
+        stateMachine.fire(1, BookingTransition.CANCEL);
+
+        verify(driverLocationRegistry).markAvailable(7);
+    }
+
+    @Test
+    @DisplayName("Should require a driver for driver-guarded transitions")
+    void fire_GuardedTransitionNeedsDriver() {
+        assertThatThrownBy(() -> stateMachine.fire(1, BookingTransition.START))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private static Booking booking(TripStatus status, Integer driverId) {
+        return Booking.builder()
+                .bookingId(1)
+                .tripStatus(status)
+                .driverId(driverId)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.tripease.service;
+
+import com.example.tripease.exception.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FareQuoteRateLimiter.
+ */
+class FareQuoteRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final FareQuoteRateLimiter limiter = new FareQuoteRateLimiter(30, 3, now::get);
+
+    @Test
+    @DisplayName("Should allow a burst, then refuse until the bucket refills")
+    void acquire_LimitsBurst() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("ip:10.0.0.1");
+        }
+        assertThatThrownBy(() -> limiter.acquire("ip:10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // 30 per minute is one every 2 seconds
+        now.addAndGet(2_000);
+        assertThatCode(() -> limiter.acquire("ip:10.0.0.1")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.acquire("ip:10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep a separate bucket per client")
+    void acquire_PerClient() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("ip:10.0.0.1");
+        }
+
+        assertThatCode(() -> limiter.acquire("ip:10.0.0.2")).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.acquire("user:7")).doesNotThrowAnyException();
+    }
+}
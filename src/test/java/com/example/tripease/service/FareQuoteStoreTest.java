@@ -0,0 +1,95 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.RideType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FareQuoteStore.
+ */
+class FareQuoteStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final FareQuoteStore store = new FareQuoteStore("test-secret", 60_000, now::get);
+
+    @Test
+    @DisplayName("Should hand back the quoted trip and price exactly once")
+    void redeem_ReturnsQuoteOnce() {
+        String quoteId = store.issue(quote());
+
+        assertThat(store.redeem(quoteId)).hasValueSatisfying(quote -> {
+            assertThat(quote.pickupLat()).isEqualTo(12.9716);
+            assertThat(quote.destinationLng()).isEqualTo(77.7068);
+            assertThat(quote.distanceKm()).isEqualTo(12.4);
+            assertThat(quote.durationMin()).isEqualTo(31);
+            assertThat(quote.totalFares()).containsExactly(170, 107, 250, 425);
+            assertThat(quote.fare(RideType.CAR)).isEqualTo(250);
+        });
+        assertThat(store.redeem(quoteId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep nothing for issued quotes, so issuing many cannot push out a live one")
+    void issue_StoresNothing() {
+        String quoteId = store.issue(quote());
+        for (int i = 0; i < 10_000; i++) {
+            store.issue(quote());
+        }
+
+        assertThat(store.redeemedCount()).isZero();
+        assertThat(store.redeem(quoteId)).isPresent();
+        assertThat(store.redeemedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a quote id whose payload was altered")
+    void redeem_RejectsTamperedId() {
+        String quoteId = store.issue(quote());
+        char first = quoteId.charAt(0);
+        String tampered = (first == 'A' ? 'B' : 'A') + quoteId.substring(1);
+
+        assertThat(store.redeem(tampered)).isEmpty();
+        assertThat(store.redeem("not-a-quote")).isEmpty();
+        assertThat(store.redeem(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a quote id signed with another secret")
+    void redeem_RejectsForeignSignature() {
+        FareQuoteStore other = new FareQuoteStore("other-secret", 60_000, now::get);
+
+        assertThat(store.redeem(other.issue(quote()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a quote once its TTL has passed")
+    void redeem_RejectsExpiredQuote() {
+        String quoteId = store.issue(quote());
+        now.addAndGet(60_001);
+
+        assertThat(store.redeem(quoteId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept a restored quote again, but not once it has expired")
+    void restore_ReleasesQuote() {
+        String quoteId = store.issue(quote());
+        store.redeem(quoteId).orElseThrow();
+
+        store.restore(quoteId);
+        assertThat(store.redeem(quoteId)).isPresent();
+
+        now.addAndGet(60_001);
+        store.restore(quoteId);
+        assertThat(store.redeem(quoteId)).isEmpty();
+    }
+
+    private static FareQuoteStore.Quote quote() {
+        return new FareQuoteStore.Quote(12.9716, 77.5946, 13.1989, 77.7068, 12.4, 31,
+                new int[]{170, 107, 250, 425});
+    }
+}
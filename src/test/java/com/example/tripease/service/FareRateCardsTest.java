@@ -0,0 +1,116 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.RideType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FareRateCards.
+ */
+class FareRateCardsTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FareRateCards rateCards;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (rateCards != null) {
+            rateCards.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should price with the card from the configured file")
+    void start_LoadsConfiguredFile() throws IOException {
+        Path file = writeCard(dir.resolve("fare-rates.properties"), 60, Instant.parse("2026-01-01T00:00:00Z"));
+        rateCards = new FareRateCards(meterRegistry, file.toString());
+
+        rateCards.start();
+
+        assertThat(carTotal(rateCards.current())).isEqualTo(60 + 150 + 50);
+    }
+
+    @Test
+    @DisplayName("Should swap in an edited card and keep the previous one when an edit is broken")
+    void reloadIfChanged_SwapsValidCardsOnly() throws IOException {
+        Path file = writeCard(dir.resolve("fare-rates.properties"), 60, Instant.parse("2026-01-01T00:00:00Z"));
+        rateCards = new FareRateCards(meterRegistry, file.toString());
+        rateCards.start();
+
+        writeCard(file, 70, Instant.parse("2026-01-01T00:01:00Z"));
+        assertThat(rateCards.reloadIfChanged()).isTrue();
+        assertThat(carTotal(rateCards.current())).isEqualTo(70 + 150 + 50);
+
+        Files.writeString(file, "car.base-rate=80\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2026-01-01T00:02:00Z")));
+        assertThat(rateCards.reloadIfChanged()).isFalse();
+        assertThat(carTotal(rateCards.current())).isEqualTo(70 + 150 + 50);
+        assertThat(meterRegistry.get("fare.rates.reloads").tag("result", "rejected").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should refuse to start when the configured card is invalid")
+    void start_FailsOnInvalidCard() throws IOException {
+        Path file = dir.resolve("fare-rates.properties");
+        Files.writeString(file, "car.base-rate=12.5\n");
+        rateCards = new FareRateCards(meterRegistry, file.toString());
+
+        assertThatThrownBy(rateCards::start).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should use the built-in rates when no file is configured")
+    void start_DefaultsWithoutFile() throws IOException {
+        rateCards = new FareRateCards(meterRegistry, "");
+
+        rateCards.start();
+
+        assertThat(carTotal(rateCards.current())).isEqualTo(250);
+    }
+
+    // 10 km, 25 min trip: per-km 15 and per-min 2 for CAR in every card written here
+    private static int carTotal(FareTable table) {
+        int[] fares = new int[FareTable.bufferSize()];
+        table.compute(10.0, 25, fares);
+        return fares[RideType.CAR.ordinal() * FareTable.STRIDE + FareTable.TOTAL];
+    }
+
+    private static Path writeCard(Path file, int carBaseRate, Instant modified) throws IOException {
+        Files.writeString(file, """
+                auto.base-rate=25
+                auto.per-km=12
+                auto.per-min=1
+                auto.min-fare=30
+                bike.base-rate=15
+                bike.per-km=8
+                bike.per-min=0.5
+                bike.min-fare=20
+                car.base-rate=%d
+                car.per-km=15
+                car.per-min=2
+                car.min-fare=80
+                premium.base-rate=100
+                premium.per-km=25
+                premium.per-min=3
+                premium.min-fare=150
+                """.formatted(carBaseRate));
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+}
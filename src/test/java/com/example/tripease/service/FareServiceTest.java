@@ -0,0 +1,160 @@
+package com.example.tripease.service;
+
+import com.example.tripease.dto.request.FareCalculationRequest;
+import com.example.tripease.dto.response.FareCalculationResponse;
+import com.example.tripease.exception.BadRequestException;
+import com.example.tripease.routing.RouteCache;
+import com.example.tripease.routing.RouteDistance;
+import com.example.tripease.routing.RoutingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the batch fare path of FareService.
+ */
+class FareServiceTest {
+
+    private final ScheduledExecutorService routingThreads = Executors.newScheduledThreadPool(4);
+    private final AtomicInteger routed = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    // Answers after a short delay from another thread, like a remote routing backend
+    private final RoutingEngine slowEngine = (originLat, originLng, destLat, destLng) -> {
+        routed.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        CompletableFuture<RouteDistance> future = new CompletableFuture<>();
+        routingThreads.schedule(() -> {
+            inFlight.decrementAndGet();
+            future.complete(RouteDistance.of(10.0, 20, false));
+        }, 5, TimeUnit.MILLISECONDS);
+        return future;
+    };
+
+    private final FareQuoteStore fareQuoteStore =
+            new FareQuoteStore("test-secret", 60_000, System::currentTimeMillis);
+
+    private final FareService fareService = new FareService(
+            new RouteCache(new SimpleMeterRegistry(), 50, 60_000, 1_000_000), slowEngine, fareQuoteStore,
+            FareRateCards.of(FareTable.defaults()), 100, 3);
+
+    @AfterEach
+    void tearDown() {
+        routingThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should route identical pairs once and report every position they answer")
+    void calculateFareBatch_DedupesIdenticalPairs() {
+        List<FareCalculationRequest> pairs = List.of(pair(0), pair(1), pair(0), pair(2), pair(1), pair(0));
+        Map<Integer, FareCalculationResponse> byIndex = new ConcurrentHashMap<>();
+
+        fareService.calculateFareBatch(pairs, (indexes, fare) -> indexes.forEach(i -> byIndex.put(i, fare))).join();
+
+        assertThat(routed.get()).isEqualTo(3);
+        assertThat(byIndex).containsOnlyKeys(0, 1, 2, 3, 4, 5);
+        assertThat(byIndex.get(5)).isSameAs(byIndex.get(0));
+        assertThat(byIndex.get(3).getFareEstimates()).isNotEmpty();
+        assertThat(byIndex.values()).allSatisfy(fare -> assertThat(fare.getQuoteId()).isNull());
+    }
+
+    @Test
+    @DisplayName("Should attach a redeemable quote to a single estimate")
+    void calculateFare_IssuesQuote() {
+        FareCalculationResponse fare = fareService.calculateFare(pair(0));
+
+        assertThat(fare.getQuoteId()).isNotNull();
+        assertThat(fareQuoteStore.redeem(fare.getQuoteId())).hasValueSatisfying(quote -> {
+            assertThat(quote.pickupLat()).isEqualTo(12.9716);
+            assertThat(quote.distanceKm()).isEqualTo(10.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Should route pairs that differ only in their addresses once and echo each address back")
+    void calculateFareBatch_DedupesOnCoordinates() {
+        FareCalculationRequest home = pair(0);
+        home.setPickupAddress("Home");
+        FareCalculationRequest office = pair(0);
+        office.setPickupAddress("Office");
+        List<FareCalculationRequest> pairs = List.of(home, pair(1), office, home);
+        Map<Integer, FareCalculationResponse> byIndex = new ConcurrentHashMap<>();
+
+        fareService.calculateFareBatch(pairs, (indexes, fare) -> indexes.forEach(i -> byIndex.put(i, fare))).join();
+
+        assertThat(routed.get()).isEqualTo(2);
+        assertThat(byIndex).containsOnlyKeys(0, 1, 2, 3);
+        assertThat(byIndex.get(0).getPickupAddress()).isEqualTo("Home");
+        assertThat(byIndex.get(2).getPickupAddress()).isEqualTo("Office");
+        assertThat(byIndex.get(3)).isSameAs(byIndex.get(0));
+        assertThat(byIndex.get(2).getDistanceKm()).isEqualTo(byIndex.get(0).getDistanceKm());
+    }
+
+    @Test
+    @DisplayName("Should keep no more route lookups in flight than the configured parallelism")
+    void calculateFareBatch_BoundsParallelism() {
+        List<FareCalculationRequest> pairs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            pairs.add(pair(i));
+        }
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        fareService.calculateFareBatch(pairs, (indexes, fare) -> delivered.addAll(indexes)).join();
+
+        assertThat(delivered).hasSize(40).doesNotHaveDuplicates();
+        assertThat(routed.get()).isEqualTo(40);
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("Should stop and fail the batch when the consumer gives up")
+    void calculateFareBatch_StopsWhenConsumerFails() {
+        List<FareCalculationRequest> pairs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            pairs.add(pair(i));
+        }
+
+        CompletableFuture<Void> batch = fareService.calculateFareBatch(pairs, (indexes, fare) -> {
+            throw new IllegalStateException("client disconnected");
+        });
+
+        assertThat(batch).failsWithin(1, TimeUnit.SECONDS);
+        assertThat(routed.get()).isLessThan(40);
+    }
+
+    @Test
+    @DisplayName("Should reject batches larger than the configured limit")
+    void calculateFareBatch_RejectsOversizedBatch() {
+        List<FareCalculationRequest> pairs = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            pairs.add(pair(i));
+        }
+
+        assertThatThrownBy(() -> fareService.calculateFareBatch(pairs, (indexes, fare) -> { }))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    // Distinct pairs sit in distinct route cache cells
+    private static FareCalculationRequest pair(int n) {
+        return FareCalculationRequest.builder()
+                .pickupLat(12.9716 + n * 0.01).pickupLng(77.5946)
+                .destinationLat(13.1989).destinationLng(77.7068)
+                .build();
+    }
+}
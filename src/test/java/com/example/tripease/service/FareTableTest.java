@@ -0,0 +1,49 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.RideType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FareTable.
+ */
+class FareTableTest {
+
+    private final FareTable fareTable = FareTable.defaults();
+    private final int[] fares = new int[FareTable.bufferSize()];
+
+    @Test
+    @DisplayName("Should price every ride type from base, distance and time")
+    void compute_PricesAllRideTypes() {
+        fareTable.compute(10.0, 25, fares);
+
+        // CAR: 50 base + 10 km * 15 + 25 min * 2
+        int car = RideType.CAR.ordinal() * FareTable.STRIDE;
+        assertThat(fares[car + FareTable.BASE]).isEqualTo(50);
+        assertThat(fares[car + FareTable.DISTANCE]).isEqualTo(150);
+        assertThat(fares[car + FareTable.TIME]).isEqualTo(50);
+        assertThat(fares[car + FareTable.TOTAL]).isEqualTo(250);
+
+        // BIKE: 15 base + 10 km * 8 + 25 min * 0.5 (truncated)
+        assertThat(fares[RideType.BIKE.ordinal() * FareTable.STRIDE + FareTable.TOTAL]).isEqualTo(107);
+    }
+
+    @Test
+    @DisplayName("Should charge the minimum fare for very short trips")
+    void compute_AppliesMinimumFare() {
+        fareTable.compute(0.3, 1, fares);
+
+        assertThat(fares[RideType.PREMIUM.ordinal() * FareTable.STRIDE + FareTable.TOTAL]).isEqualTo(150);
+        assertThat(fares[RideType.AUTO.ordinal() * FareTable.STRIDE + FareTable.TOTAL]).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Should reject rate arrays that do not cover every ride type")
+    void constructor_RejectsIncompleteRates() {
+        assertThatThrownBy(() -> new FareTable(new int[]{1}, new double[]{1}, new double[]{1}, new int[]{1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
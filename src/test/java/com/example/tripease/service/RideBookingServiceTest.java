@@ -0,0 +1,188 @@
+package com.example.tripease.service;
+
+import com.example.tripease.Enum.RideType;
+import com.example.tripease.Enum.Role;
+import com.example.tripease.Enum.TripStatus;
+import com.example.tripease.dispatch.DeclinedDrivers;
+import com.example.tripease.dispatch.DispatchMode;
+import com.example.tripease.dispatch.DriverDispatcher;
+import com.example.tripease.dispatch.DriverLocationRegistry;
+import com.example.tripease.dispatch.PendingBookingIndex;
+import com.example.tripease.dispatch.PendingBookingStream;
+import com.example.tripease.dto.request.CreateBookingRequest;
+import com.example.tripease.dto.response.BookingDetailsResponse;
+import com.example.tripease.exception.BadRequestException;
+import com.example.tripease.model.Booking;
+import com.example.tripease.repository.BookingRepository;
+import com.example.tripease.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RideBookingService.
+ * Dispatch state (pending index, driver locations, declines, offers) is real;
+ * persistence, events and the stream are mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class RideBookingServiceTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PendingBookingStream pendingBookingStream;
+
+    @Mock
+    private BookingStateMachine bookingStateMachine;
+
+    @Mock
+    private FareQuoteStore fareQuoteStore;
+
+    private PendingBookingIndex pendingBookingIndex;
+    private DriverLocationRegistry driverLocationRegistry;
+    private DeclinedDrivers declinedDrivers;
+    private DriverDispatcher driverDispatcher;
+    private RideBookingService rideBookingService;
+
+    @BeforeEach
+    void setUp() {
+        pendingBookingIndex = new PendingBookingIndex(bookingRepository, 1.0);
+        driverLocationRegistry = new DriverLocationRegistry(1.0, 60_000);
+        declinedDrivers = new DeclinedDrivers();
+        driverDispatcher = new DriverDispatcher(driverLocationRegistry, pendingBookingIndex, pendingBookingStream,
+                declinedDrivers, DispatchMode.NEAREST, 1, 5.0);
+        rideBookingService = new RideBookingService(bookingRepository, pendingBookingIndex, eventPublisher,
+                driverLocationRegistry, driverDispatcher, bookingStateMachine, declinedDrivers, fareQuoteStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should reject nearby queries with an out-of-range latitude or longitude")
+    void getNearbyPendingBookings_RejectsBadCoordinates() {
+        assertThatThrownBy(() -> rideBookingService.getNearbyPendingBookings(90.5, 77.0, 5, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("lat");
+        assertThatThrownBy(() -> rideBookingService.getNearbyPendingBookings(12.9, -180.5, 5, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("lng");
+        assertThatThrownBy(() -> rideBookingService.getNearbyPendingBookings(12.9, 77.5, 0, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("radiusKm");
+    }
+
+    @Test
+    @DisplayName("Should serve nearby queries at the edge of the valid range")
+    void getNearbyPendingBookings_AcceptsBoundaryCoordinates() {
+        pendingBookingIndex.add(booking(1, -90, 180));
+
+        assertThat(rideBookingService.getNearbyPendingBookings(-90, 180, 5, null))
+                .extracting(BookingDetailsResponse::getBookingId)
+                .containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should re-offer a rejected booking to the next driver and hide it from the decliner")
+    void rejectBooking_ReoffersSkippingDecliner() {
+        driverLocationRegistry.update(7, LAT + 0.001, LNG, true);
+        driverLocationRegistry.update(8, LAT + 0.01, LNG, true);
+        pendingBookingIndex.add(booking(1, LAT, LNG));
+        driverDispatcher.offerToNearest(booking(1, LAT, LNG));
+        assertThat(driverDispatcher.offersFor(7)).extracting(BookingDetailsResponse::getBookingId).containsExactly(1);
+        signInAsDriver(7);
+
+        rideBookingService.rejectBooking(1);
+
+        assertThat(driverDispatcher.offersFor(7)).isEmpty();
+        assertThat(driverDispatcher.offersFor(8)).extracting(BookingDetailsResponse::getBookingId).containsExactly(1);
+        verify(pendingBookingStream).sendToDrivers(eq(new int[]{8}), eq("booking-offered"), any());
+        assertThat(rideBookingService.getPendingBookings(7)).isEmpty();
+        assertThat(rideBookingService.getNearbyPendingBookings(LAT, LNG, 5, 7)).isEmpty();
+        assertThat(rideBookingService.getPendingBookings(8)).extracting(BookingDetailsResponse::getBookingId)
+                .containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should not offer a rejected booking back when only the decliner is nearby")
+    void rejectBooking_NoOtherDriver() {
+        driverLocationRegistry.update(7, LAT + 0.001, LNG, true);
+        pendingBookingIndex.add(booking(1, LAT, LNG));
+        driverDispatcher.offerToNearest(booking(1, LAT, LNG));
+        signInAsDriver(7);
+
+        rideBookingService.rejectBooking(1);
+
+        assertThat(driverDispatcher.offersFor(7)).isEmpty();
+        assertThat(pendingBookingIndex.contains(1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should release the fare quote when the booking cannot be saved")
+    void createBooking_RestoresQuoteWhenSaveFails() {
+        FareQuoteStore.Quote quote = new FareQuoteStore.Quote(LAT, LNG, LAT + 0.1, LNG, 12.4, 25,
+                new int[]{120, 60, 250, 400});
+        when(fareQuoteStore.redeem("quote-1")).thenReturn(Optional.of(quote));
+        when(bookingRepository.save(any(Booking.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        signIn(Role.CUSTOMER, 3);
+        CreateBookingRequest request = CreateBookingRequest.builder()
+                .quoteId("quote-1")
+                .rideType(RideType.CAR)
+                .build();
+
+        assertThatThrownBy(() -> rideBookingService.createBooking(request))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(fareQuoteStore).restore("quote-1");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static void signInAsDriver(int driverId) {
+        signIn(Role.DRIVER, driverId);
+    }
+
+    private static void signIn(Role role, int referenceId) {
+        JwtPrincipal principal = new JwtPrincipal(100 + referenceId, "user" + referenceId + "@example.com",
+                role, referenceId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    private static Booking booking(int id, double pickupLat, double pickupLng) {
+        return Booking.builder()
+                .bookingId(id)
+                .bookedAt(new Date(1_000))
+                .pickupLat(pickupLat)
+                .pickupLng(pickupLng)
+                .tripStatus(TripStatus.PENDING)
+                .build();
+    }
+}
@@ -6,7 +6,7 @@ import 'leaflet/dist/leaflet.css';
 import Header from '../components/Header';
 import Button from '../components/Button';
 import LocationSearch from '../components/LocationSearch';
-import { fareAPI, rideAPI } from '../services/api';
+import { authAPI, fareAPI, rideAPI } from '../services/api';
 
 // Fix for Leaflet marker icons
 delete L.Icon.Default.prototype._getIconUrl;
@@ -64,6 +64,7 @@ export default function CustomerDashboard() {
     const [routeInfo, setRouteInfo] = useState(null);
     const [fareEstimates, setFareEstimates] = useState([]);
     const [selectedRide, setSelectedRide] = useState(null);
+    const [quoteId, setQuoteId] = useState(null);
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
     const [bookingStatus, setBookingStatus] = useState(null);
@@ -80,7 +81,9 @@ export default function CustomerDashboard() {
         setUser(JSON.parse(userData));
     }, [navigate]);
 
-    const handleLogout = () => {
+    const handleLogout = async () => {
+        // Revoke the token server-side; log out locally even if that fails
+        await authAPI.logout().catch(() => {});
         localStorage.removeItem('token');
         localStorage.removeItem('user');
         navigate('/');
@@ -113,6 +116,7 @@ export default function CustomerDashboard() {
                 });
                 setFareEstimates(data.fareEstimates);
                 setSelectedRide(data.fareEstimates[0]);
+                setQuoteId(data.quoteId);
             } else {
                 setError(data.message || 'Could not calculate fare');
             }
@@ -147,14 +151,8 @@ export default function CustomerDashboard() {
         try {
             const response = await rideAPI.createBooking({
                 pickupAddress: pickup.address,
-                pickupLat: pickup.lat,
-                pickupLng: pickup.lng,
                 destinationAddress: destination.address,
-                destinationLat: destination.lat,
-                destinationLng: destination.lng,
-                tripDistanceInKm: selectedRide.distanceKm,
-                estimatedTimeMin: selectedRide.durationMin,
-                billAmount: selectedRide.totalFare,
+                quoteId: quoteId,
                 rideType: selectedRide.rideType,
             });
 
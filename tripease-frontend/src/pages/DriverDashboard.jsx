@@ -2,7 +2,7 @@ import { useEffect, useState, useCallback } from 'react';
 import { useNavigate } from 'react-router-dom';
 import Header from '../components/Header';
 import Button from '../components/Button';
-import { rideAPI } from '../services/api';
+import { authAPI, rideAPI } from '../services/api';
 
 export default function DriverDashboard() {
     const navigate = useNavigate();
@@ -23,7 +23,9 @@ export default function DriverDashboard() {
         setUser(JSON.parse(userData));
     }, [navigate]);
 
-    const handleLogout = () => {
+    const handleLogout = async () => {
+        // Revoke the token server-side; log out locally even if that fails
+        await authAPI.logout().catch(() => {});
         localStorage.removeItem('token');
         localStorage.removeItem('user');
         navigate('/');
@@ -56,18 +58,93 @@ export default function DriverDashboard() {
         }
     }, []);
 
-    // Poll for new bookings when online
+    // Apply one pending-booking stream event to the list
+    const applyStreamEvent = useCallback((name, data) => {
+        switch (name) {
+            case 'pending-snapshot':
+                setPendingBookings(data);
+                break;
+            case 'booking-created':
+            case 'booking-offered':
+                setPendingBookings(prev => prev.some(b => b.bookingId === data.bookingId)
+                    ? prev
+                    : [data, ...prev]);
+                break;
+            case 'booking-accepted':
+            case 'booking-cancelled':
+                setPendingBookings(prev => prev.filter(b => b.bookingId !== data.bookingId));
+                break;
+            case 'my-booking-updated':
+                // One of this driver's own bookings changed (e.g. the customer cancelled it)
+                fetchMyBookings();
+                break;
+            default:
+                break;
+        }
+    }, [fetchMyBookings]);
+
+    // Subscribe to pushed booking changes when online; reconnect with a poll
+    // in between if the stream drops
     useEffect(() => {
-        if (isOnline) {
+        if (!isOnline) return;
+
+        const controller = new AbortController();
+        let retryTimer;
+        const connect = async () => {
+            try {
+                await rideAPI.streamPendingBookings(applyStreamEvent, controller.signal);
+            } catch (err) {
+                if (controller.signal.aborted) return;
+                console.error('Pending booking stream failed:', err);
+            }
+            if (controller.signal.aborted) return;
+            // Catch up on anything missed while disconnected
             fetchPendingBookings();
             fetchMyBookings();
-            const interval = setInterval(() => {
-                fetchPendingBookings();
-                fetchMyBookings();
-            }, 5000); // Poll every 5 seconds
-            return () => clearInterval(interval);
-        }
-    }, [isOnline, fetchPendingBookings, fetchMyBookings]);
+            retryTimer = setTimeout(connect, 5000);
+        };
+
+        connect();
+        fetchMyBookings();
+        return () => {
+            controller.abort();
+            clearTimeout(retryTimer);
+        };
+    }, [isOnline, applyStreamEvent, fetchPendingBookings, fetchMyBookings]);
+
+    // Share the driver's position while online, so NEAREST dispatch can offer
+    // them bookings. Pings are throttled, and the last fix is re-sent before the
+    // server would treat it as stale (60 s) even when the driver stands still.
+    useEffect(() => {
+        if (!isOnline || !navigator.geolocation) return;
+
+        let lastFix = null;
+        let lastSentAt = 0;
+        const send = () => {
+            if (!lastFix) return;
+            lastSentAt = Date.now();
+            rideAPI.updateDriverLocation({ ...lastFix, available: true })
+                .catch(err => console.error('Error sending location:', err));
+        };
+        const watchId = navigator.geolocation.watchPosition(
+            (position) => {
+                lastFix = { lat: position.coords.latitude, lng: position.coords.longitude };
+                if (Date.now() - lastSentAt >= 10000) send();
+            },
+            (err) => console.error('Location unavailable:', err.message),
+            { enableHighAccuracy: true, maximumAge: 10000 }
+        );
+        const keepAlive = setInterval(send, 30000);
+
+        return () => {
+            navigator.geolocation.clearWatch(watchId);
+            clearInterval(keepAlive);
+            // Going offline: stop receiving offers right away
+            if (lastFix) {
+                rideAPI.updateDriverLocation({ ...lastFix, available: false }).catch(() => {});
+            }
+        };
+    }, [isOnline]);
 
     const handleAcceptBooking = async (bookingId) => {
         setLoading(true);
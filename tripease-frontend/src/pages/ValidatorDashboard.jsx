@@ -2,7 +2,7 @@ import { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import Header from '../components/Header';
 import Button from '../components/Button';
-import { validatorAPI } from '../services/api';
+import { authAPI, validatorAPI } from '../services/api';
 
 export default function ValidatorDashboard() {
     const navigate = useNavigate();
@@ -39,7 +39,9 @@ export default function ValidatorDashboard() {
         }
     };
 
-    const handleLogout = () => {
+    const handleLogout = async () => {
+        // Revoke the token server-side; log out locally even if that fails
+        await authAPI.logout().catch(() => {});
         localStorage.removeItem('token');
         localStorage.removeItem('user');
         navigate('/validator/login');
@@ -21,12 +21,56 @@ api.interceptors.request.use(
     (error) => Promise.reject(error)
 );
 
+/**
+ * Read a Server-Sent Events stream with fetch, so the bearer token can be sent
+ * in the Authorization header (EventSource cannot set headers). Calls
+ * onEvent(name, data) for every event with JSON-parsed data, and resolves when
+ * the server closes the stream. Abort through the given signal.
+ */
+const streamEvents = async (path, onEvent, signal) => {
+    const token = localStorage.getItem('token');
+    const response = await fetch(`${API_BASE_URL}${path}`, {
+        headers: {
+            Accept: 'text/event-stream',
+            ...(token ? { Authorization: `Bearer ${token}` } : {}),
+        },
+        signal,
+    });
+    if (!response.ok || !response.body) {
+        throw new Error(`Stream ${path} failed with status ${response.status}`);
+    }
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += value.replace(/\r\n?/g, '\n');
+
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+
+            let name = 'message';
+            const data = [];
+            for (const line of block.split('\n')) {
+                if (line.startsWith('event:')) name = line.slice(6).trim();
+                else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+            }
+            // Comment-only blocks are heartbeats
+            if (data.length > 0) onEvent(name, JSON.parse(data.join('\n')));
+        }
+    }
+};
+
 // Auth APIs
 export const authAPI = {
     registerDriver: (data) => api.post('/auth/register/driver', data),
     registerCustomer: (data) => api.post('/auth/register/customer', data),
     loginDriver: (data) => api.post('/auth/login/driver', data),
     loginCustomer: (data) => api.post('/auth/login/customer', data),
+    logout: () => api.post('/auth/logout'),
 };
 
 // Customer APIs
@@ -59,6 +103,8 @@ export const fareAPI = {
 export const rideAPI = {
     createBooking: (data) => api.post('/ride/book', data),
     getPendingBookings: () => api.get('/ride/pending'),
+    streamPendingBookings: (onEvent, signal) => streamEvents('/ride/pending/stream', onEvent, signal),
+    updateDriverLocation: (data) => api.post('/ride/driver/location', data),
     acceptBooking: (bookingId) => api.post(`/ride/accept/${bookingId}`),
     rejectBooking: (bookingId) => api.post(`/ride/reject/${bookingId}`),
     getBooking: (bookingId) => api.get(`/ride/${bookingId}`),